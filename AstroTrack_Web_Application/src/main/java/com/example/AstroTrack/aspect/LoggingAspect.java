@@ -1,38 +1,137 @@
 package com.example.AstroTrack.aspect;
 
-import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.After;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
 
-import java.util.Date;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Times every service call and logs it at debug level.
+ * The start time is kept on the stack of the calling thread, so concurrent calls are measured independently. The
+ * durations are recorded into a latency histogram per service method, named astrotrack.service.method and tagged
+ * with the class, the method and the exception thrown, if any. Arguments are only described when debug logging is
+ * enabled, and only scalar values are logged as they are; other arguments are logged by type and size, so file
+ * contents, image bytes and credentials never reach the log.
+ */
 @Aspect
 @Component
 public class LoggingAspect {
 
     private static final Logger logger = LoggerFactory.getLogger(LoggingAspect.class);
 
-    private Date startTime;
+    private static final String TIMER_NAME = "astrotrack.service.method";
 
-    @Before("execution(* com.example.AstroTrack.service.*.*(..))")
-    public void logBefore(JoinPoint joinPoint) {
-         startTime = new Date(System.currentTimeMillis());
-        logger.info("Entering method: " + joinPoint.getSignature());
-        Object[] args = joinPoint.getArgs();
+    private static final String NO_EXCEPTION = "none";
+
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Times a service call, records its duration and logs it.
+     *
+     * @param joinPoint the service call
+     * @return the result of the call
+     * @throws Throwable whatever the call throws
+     */
+    @Around("execution(* com.example.AstroTrack.service.*.*(..))")
+    public Object timeServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Entering method: {} with arguments: {}", signature, describe(joinPoint.getArgs()));
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            long elapsed = System.nanoTime() - start;
+            timers.computeIfAbsent(signature.getMethod(), method -> timer(method, NO_EXCEPTION))
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Exiting method: {} Execution time: {} ms", signature.getName(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+            return result;
+        } catch (Throwable e) {
+            long elapsed = System.nanoTime() - start;
+            timer(signature.getMethod(), e.getClass().getSimpleName()).record(elapsed, TimeUnit.NANOSECONDS);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Method: {} failed with {} after {} ms", signature.getName(), e.getClass().getSimpleName(),
+                        TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Registers, or looks up, the latency histogram of a service method.
+     *
+     * @param method the service method
+     * @param exception the simple name of the exception thrown, or none
+     * @return the timer
+     */
+    private Timer timer(Method method, String exception) {
+        return Timer.builder(TIMER_NAME)
+                .description("Execution time of service methods")
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Describes the arguments of a call without rendering their contents.
+     *
+     * @param args the arguments
+     * @return the description of the arguments
+     */
+    static String describe(Object[] args) {
+        StringJoiner description = new StringJoiner(", ", "[", "]");
         for (Object arg : args) {
-            logger.info("Argument: " + arg);
+            description.add(describe(arg));
         }
+        return description.toString();
     }
 
-    @After("execution(* com.example.AstroTrack.service.*.*(..))")
-    public void logAfter(JoinPoint joinPoint) {
-        Date endTime = new Date(System.currentTimeMillis());
-        long executionTime = endTime.getTime() - startTime.getTime();
-        logger.info("Exiting method: " + joinPoint.getSignature().getName()+"  Execution time : "+executionTime);
+    /**
+     * Describes an argument. Numbers, booleans and enums are described by their value, files, byte arrays, strings
+     * and collections by their size, and everything else by its type.
+     *
+     * @param arg the argument
+     * @return the description of the argument
+     */
+    private static String describe(Object arg) {
+        if (arg == null) {
+            return "null";
+        }
+        if (arg instanceof Number || arg instanceof Boolean || arg instanceof Enum<?>) {
+            return arg.toString();
+        }
+        if (arg instanceof MultipartFile file) {
+            return "MultipartFile(" + file.getSize() + " bytes)";
+        }
+        if (arg instanceof byte[] bytes) {
+            return "byte[" + bytes.length + "]";
+        }
+        if (arg instanceof CharSequence text) {
+            return "String(" + text.length() + " chars)";
+        }
+        if (arg instanceof Collection<?> collection) {
+            return arg.getClass().getSimpleName() + "(" + collection.size() + " elements)";
+        }
+        return arg.getClass().getSimpleName();
     }
 }
-
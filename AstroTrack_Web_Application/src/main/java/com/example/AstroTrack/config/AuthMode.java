@@ -0,0 +1,18 @@
+package com.example.AstroTrack.config;
+
+/**
+ * How the JWT filter builds the authentication of a request, selected with the astrotrack.auth.mode property.
+ */
+public enum AuthMode {
+
+    /**
+     * The user named by the token is loaded through the user details service on every request that misses the
+     * verified-token cache.
+     */
+    DATABASE,
+
+    /**
+     * The authentication is built from the verified claims alone; users are only loaded at login and refresh.
+     */
+    STATELESS
+}
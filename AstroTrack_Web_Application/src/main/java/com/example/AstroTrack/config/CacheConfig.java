@@ -0,0 +1,45 @@
+package com.example.AstroTrack.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Enables the application caches.
+ * The caches themselves are configured through the spring.cache properties; setting spring.cache.type to none
+ * turns all of them off.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Name of the cache holding the details of authenticated users by username.
+     */
+    public static final String USERS_CACHE = "users";
+
+    /**
+     * Registers the user details cache, which is smaller and expires sooner than the shared cache settings.
+     * The expiry bounds how long changes made to users outside the application go unnoticed.
+     *
+     * @param maximumSize the maximum number of cached users
+     * @param timeToLive the time after which a cached user is read again
+     * @return the customizer of the Caffeine cache manager
+     */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> usersCacheCustomizer(
+            @Value("${astrotrack.user-cache.maximum-size:1000}") long maximumSize,
+            @Value("${astrotrack.user-cache.time-to-live:10m}") Duration timeToLive) {
+        return cacheManager -> cacheManager.registerCustomCache(USERS_CACHE, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build());
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.AstroTrack.config;
 
+import com.example.AstroTrack.controller.ClientController;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -25,6 +27,7 @@ public class CustomCorsConfiguration implements CorsConfigurationSource {
         config.setAllowedOrigins(List.of("http://localhost:5192"));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE"));
         config.setAllowedHeaders(List.of("*"));
+        config.setExposedHeaders(List.of(ClientController.NEXT_CURSOR_HEADER, HttpHeaders.ETAG));
         return config;
     }
 }
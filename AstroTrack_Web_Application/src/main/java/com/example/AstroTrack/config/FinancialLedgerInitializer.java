@@ -0,0 +1,27 @@
+package com.example.AstroTrack.config;
+
+import com.example.AstroTrack.service.FinancialLedgerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the financial ledger from the existing consultations the first time the application starts with it.
+ */
+@Component
+public class FinancialLedgerInitializer {
+
+    @Autowired
+    private FinancialLedgerService financialLedgerService;
+
+    /**
+     * Builds the ledger once the application has started, unless it has been built before.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildLedger() {
+        if (!financialLedgerService.isBuilt()) {
+            financialLedgerService.rebuild();
+        }
+    }
+}
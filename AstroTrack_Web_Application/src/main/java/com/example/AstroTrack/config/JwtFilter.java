@@ -1,14 +1,18 @@
 package com.example.AstroTrack.config;
 
 import com.example.AstroTrack.exception.ExpiredTokenException;
+import com.example.AstroTrack.service.TokenCacheService;
+import com.example.AstroTrack.service.TokenService;
 import com.example.AstroTrack.service.Impl.JwtServiceImpl;
 import com.example.AstroTrack.service.Impl.UserDetailServiceImpl;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -20,6 +24,10 @@ import java.io.IOException;
 
 /**
  * Filter class for JWT authentication.
+ * The token is parsed and verified once per request and its claims are used for all further checks.
+ * Verified tokens are cached until they expire or are blacklisted, so repeated requests with the same token skip
+ * verification and the user lookup. In the stateless mode the user is never looked up; the authentication is built
+ * from the subject and roles claims of the token.
  */
 @Component
 public class JwtFilter extends OncePerRequestFilter {
@@ -30,6 +38,15 @@ public class JwtFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailServiceImpl userDetailsService;
 
+    @Autowired
+    private TokenCacheService tokenCacheService;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Value("${astrotrack.auth.mode:database}")
+    private AuthMode authMode;
+
     /**
      * Filters incoming requests for JWT authentication.
      *
@@ -44,29 +61,59 @@ public class JwtFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
+        Claims claims = null;
         String jwt = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
+            UserDetails cachedPrincipal = tokenCacheService.get(jwt);
+            if (cachedPrincipal != null) {
+                if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                    authenticate(request, cachedPrincipal);
+                }
+                chain.doFilter(request, response);
+                return;
+            }
             try {
-                username = jwtService.extractUsername(jwt);
+                claims = jwtService.parseToken(jwt);
             } catch (ExpiredJwtException e) {
                 throw new ExpiredTokenException("Token has expired");
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        if (claims != null && claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails;
+            boolean valid;
+            if (authMode == AuthMode.STATELESS) {
+                userDetails = new UserDetailsImpl(claims.getSubject(), null, jwtService.extractAuthorities(claims));
+                valid = jwtService.validateToken(claims, jwt);
+            } else {
+                userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+                valid = jwtService.validateToken(claims, jwt, userDetails);
+            }
 
-            if (jwtService.validateToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                usernamePasswordAuthenticationToken
-                        .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+            if (valid) {
+                authenticate(request, userDetails);
+                tokenCacheService.put(jwt, userDetails, claims.getExpiration());
+                if (tokenService.isTokenBlacklisted(jwt)) {
+                    tokenCacheService.evict(jwt);
+                }
             }
         }
         chain.doFilter(request, response);
     }
+
+    /**
+     * Authenticates the current request as the given principal.
+     *
+     * @param request the HTTP request
+     * @param userDetails the principal
+     */
+    private static void authenticate(HttpServletRequest request, UserDetails userDetails) {
+        UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        usernamePasswordAuthenticationToken
+                .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+    }
 }
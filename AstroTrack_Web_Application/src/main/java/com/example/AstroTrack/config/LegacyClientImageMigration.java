@@ -0,0 +1,82 @@
+package com.example.AstroTrack.config;
+
+import com.example.AstroTrack.service.ImageStorageService;
+import com.example.AstroTrack.service.ThumbnailService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Moves client images that are still stored in the legacy {@code client.image} column into the image store.
+ */
+@Component
+public class LegacyClientImageMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(LegacyClientImageMigration.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ImageStorageService imageStorageService;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    /**
+     * Migrates all legacy images once the application has started.
+     * Each client is migrated in its own transaction, so an interrupted run simply resumes on the next start.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyImages() {
+        List<String> columnTypes = jdbcTemplate.queryForList(
+                "SELECT data_type FROM information_schema.columns WHERE table_name = 'client' AND column_name = 'image'", String.class);
+        if (columnTypes.isEmpty()) {
+            return;
+        }
+        boolean largeObject = "oid".equals(columnTypes.get(0));
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM client WHERE image IS NOT NULL AND image_key IS NULL", Long.class);
+        for (Long id : ids) {
+            transactionTemplate.executeWithoutResult(status -> migrate(id, largeObject));
+        }
+        if (!ids.isEmpty()) {
+            logger.info("Moved {} legacy client images into the image store", ids.size());
+        }
+    }
+
+    /**
+     * Copies the legacy image of a single client into the image store, records its media type and clears the column.
+     *
+     * @param id the client ID
+     * @param largeObject true if the legacy column references a PostgreSQL large object, false if it is bytea
+     */
+    private void migrate(Long id, boolean largeObject) {
+        String imageKey = jdbcTemplate.query("SELECT image FROM client WHERE id = ?", rs -> {
+            rs.next();
+            try (InputStream content = largeObject ? rs.getBlob(1).getBinaryStream() : rs.getBinaryStream(1)) {
+                return imageStorageService.store(content);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, id);
+        if (largeObject) {
+            jdbcTemplate.queryForObject("SELECT lo_unlink(image) FROM client WHERE id = ?", Integer.class, id);
+        }
+        jdbcTemplate.update("UPDATE client SET image_key = ?, image_content_type = ?, image = NULL WHERE id = ?",
+                imageKey, thumbnailService.detectContentType(imageKey), id);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.AstroTrack.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the scheduled housekeeping tasks, such as purging expired revoked tokens.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,6 +2,7 @@ package com.example.AstroTrack.config;
 
 import com.example.AstroTrack.service.Impl.UserDetailServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,10 +13,13 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 /**
  * Security configuration class for setting up JWT authentication and CORS configuration.
  */
@@ -23,6 +27,8 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final String BCRYPT = "bcrypt";
+
     @Autowired
     private JwtFilter jwtFilter;
 
@@ -32,18 +38,28 @@ public class SecurityConfig {
     @Autowired
     private CustomCorsConfiguration configuration;
 
+    @Value("${astrotrack.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
     /**
-     * Bean for password encoding using BCrypt.
+     * Bean for password encoding.
+     * New hashes use BCrypt at the configured strength and are prefixed with {bcrypt}, so the algorithm can change
+     * later. Hashes stored before the prefix existed are verified as BCrypt. Unprefixed hashes, and hashes weaker than
+     * the configured strength, are upgraded on the next successful login.
      *
      * @return a PasswordEncoder instance
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(10);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, bcrypt));
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return passwordEncoder;
     }
 
     /**
      * Bean for authentication provider using DAO.
+     * Password hashes that need an upgrade are re-hashed and stored after a successful login.
      *
      * @return a DaoAuthenticationProvider instance
      */
@@ -51,6 +67,7 @@ public class SecurityConfig {
     public DaoAuthenticationProvider authenticationProvider(){
         DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
         authenticationProvider.setUserDetailsService(userDetails);
+        authenticationProvider.setUserDetailsPasswordService(userDetails);
         authenticationProvider.setPasswordEncoder(passwordEncoder());
         return authenticationProvider;
     }
@@ -0,0 +1,72 @@
+package com.example.AstroTrack.config;
+
+import com.example.AstroTrack.dto.InvalidationEventDto;
+import com.example.AstroTrack.entity.Users;
+import com.example.AstroTrack.service.InvalidationBusService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * JPA entity listener that evicts the cached user details whenever a user is written.
+ * The whole cache is cleared, as a renamed user is still cached under the old username. Clearing happens right away
+ * and again when the transaction completes, so details read before the commit do not stay cached. The eviction is
+ * then broadcast over the invalidation bus, so other instances clear their caches too.
+ */
+public class UserCacheEvictionListener {
+
+    @Autowired
+    private ObjectProvider<CacheManager> cacheManager;
+
+    @Autowired
+    private ObjectProvider<InvalidationBusService> invalidationBusService;
+
+    /**
+     * Evicts the cached user details after a user has been created, updated or deleted.
+     *
+     * @param user the written user
+     */
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void evict(Users user) {
+        clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    clear();
+                    broadcast();
+                }
+            });
+        } else {
+            broadcast();
+        }
+    }
+
+    /**
+     * Clears the user details cache, if caching is enabled.
+     */
+    private void clear() {
+        CacheManager manager = cacheManager.getIfAvailable();
+        Cache cache = manager != null ? manager.getCache(CacheConfig.USERS_CACHE) : null;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Asks every instance to clear its user details cache.
+     */
+    private void broadcast() {
+        invalidationBusService.ifAvailable(bus -> bus.publish(InvalidationEventDto.cacheEvicted(CacheConfig.USERS_CACHE, List.of())));
+    }
+}
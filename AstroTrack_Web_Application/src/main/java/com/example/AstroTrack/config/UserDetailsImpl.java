@@ -15,12 +15,15 @@ import java.util.Objects;
 public class UserDetailsImpl implements UserDetails {
     private static final long serialVersionUID = 1L;
 
+    private final Long id;
 
     private final String userName;
 
     @JsonIgnore
     private final String password;
 
+    private final Collection<? extends GrantedAuthority> authorities;
+
     /**
      * Constructs a new UserDetailsImpl with the specified username and password.
      *
@@ -28,9 +31,33 @@ public class UserDetailsImpl implements UserDetails {
      * @param password the password
      */
     public UserDetailsImpl(String userName, String password) {
-        // this.id = id;
+        this(userName, password, List.of());
+    }
+
+    /**
+     * Constructs a new UserDetailsImpl with the specified username, password and authorities.
+     *
+     * @param userName the username
+     * @param password the password, or null if it is not known
+     * @param authorities the granted authorities
+     */
+    public UserDetailsImpl(String userName, String password, Collection<? extends GrantedAuthority> authorities) {
+        this(null, userName, password, authorities);
+    }
+
+    /**
+     * Constructs a new UserDetailsImpl for a stored user.
+     *
+     * @param id the identifier of the user, or null if the user is not loaded from the database
+     * @param userName the username
+     * @param password the password, or null if it is not known
+     * @param authorities the granted authorities
+     */
+    public UserDetailsImpl(Long id, String userName, String password, Collection<? extends GrantedAuthority> authorities) {
+        this.id = id;
         this.userName = userName;
         this.password = password;
+        this.authorities = List.copyOf(authorities);
     }
 
     /**
@@ -40,15 +67,21 @@ public class UserDetailsImpl implements UserDetails {
      * @return a UserDetailsImpl instance
      */
     public static UserDetailsImpl build(Users user) {
-        return new UserDetailsImpl(
-                // user.getId(),
-                user.getUsername(),
-                user.getPassword());
+        return new UserDetailsImpl(user.getId(), user.getUsername(), user.getPassword(), List.of());
+    }
+
+    /**
+     * Returns the identifier of the user, so the user can be referenced without loading it again.
+     *
+     * @return the identifier, or null if the user was not loaded from the database
+     */
+    public Long getId() {
+        return id;
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of();
+        return authorities;
     }
 
     @Override
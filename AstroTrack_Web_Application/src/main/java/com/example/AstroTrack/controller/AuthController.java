@@ -1,25 +1,27 @@
 package com.example.AstroTrack.controller;
 
+import com.example.AstroTrack.config.UserDetailsImpl;
 import com.example.AstroTrack.dto.AuthRequestDto;
+import com.example.AstroTrack.dto.IssuedRefreshTokenDto;
 import com.example.AstroTrack.dto.JwtResponseDto;
 import com.example.AstroTrack.dto.RefreshTokenDto;
 import com.example.AstroTrack.dto.RefreshTokenRequestDto;
-import com.example.AstroTrack.entity.RefreshToken;
+import com.example.AstroTrack.exception.TooManyLoginAttemptsException;
 import com.example.AstroTrack.service.Impl.JwtServiceImpl;
 import com.example.AstroTrack.service.Impl.RefreshTokenServiceImpl;
+import com.example.AstroTrack.service.Impl.UserDetailServiceImpl;
+import com.example.AstroTrack.service.LoginService;
 import com.example.AstroTrack.service.TokenService;
+import io.jsonwebtoken.JwtException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller to handle authentication requests.
@@ -33,7 +35,7 @@ public class AuthController {
     private JwtServiceImpl jwtService;
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private LoginService loginService;
 
     @Autowired
     private RefreshTokenServiceImpl refreshTokenServiceImpl;
@@ -41,59 +43,72 @@ public class AuthController {
     @Autowired
     private TokenService tokenService;
 
+    @Autowired
+    private UserDetailServiceImpl userDetailService;
+
     /**
      * Authenticates the user and generates a JWT token.
+     * The password is verified on the bounded login executor and the request thread is released meanwhile.
+     * The user is loaded once, by the authentication, and the loaded principal is used to issue both tokens.
      *
      * @param authRequestDTO the authentication request containing username and password
-     * @return a response containing the JWT access token and refresh token
+     * @return a future response containing the JWT access token and refresh token
      * @throws UsernameNotFoundException if the authentication request is invalid
+     * @throws TooManyLoginAttemptsException if too many logins are waiting already
      */
-    @Operation(summary = "Authenticate user", description = "Authenticates the user and generates a JWT token.")
+    @Operation(summary = "Authenticate user", description = "Authenticates the user and generates a JWT token. Responds with 429 when too many logins are in progress.")
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping("/login")
-    public JwtResponseDto authenticateAndGetToken(@RequestBody AuthRequestDto authRequestDTO) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(authRequestDTO.getUsername(), authRequestDTO.getPassword()));
-        Optional<RefreshToken> refreshToken = refreshTokenServiceImpl.createRefreshToken(authRequestDTO.getUsername());
-
-        if (authentication.isAuthenticated()) {
-            return JwtResponseDto.builder()
-                    .accessToken(jwtService.generateToken(authRequestDTO.getUsername()))
-                    .refreshToken(refreshToken.get().getToken())
-                    .build();
-        } else {
-            throw new UsernameNotFoundException("Invalid user request..!!");
-        }
+    public CompletableFuture<JwtResponseDto> authenticateAndGetToken(@RequestBody AuthRequestDto authRequestDTO) {
+        return loginService.authenticate(authRequestDTO.getUsername(), authRequestDTO.getPassword())
+                .thenApply(authentication -> {
+                    if (authentication.isAuthenticated()) {
+                        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+                        IssuedRefreshTokenDto refreshToken = refreshTokenServiceImpl.createRefreshToken(userDetails);
+                        return JwtResponseDto.builder()
+                                .accessToken(jwtService.generateToken(userDetails))
+                                .refreshToken(refreshToken.token())
+                                .build();
+                    } else {
+                        throw new UsernameNotFoundException("Invalid user request..!!");
+                    }
+                });
     }
 
     /**
-     * Generates a new access token using the provided refresh token.
+     * Generates a new access token using the provided refresh token, and replaces the refresh token with a new one.
      *
      * @param refreshTokenRequestDTO the refresh token request containing the refresh token
-     * @return a response containing the new access token
-     * @throws RuntimeException if the refresh token is not found in the database
+     * @return a response containing the new access token and the new refresh token
+     * @throws RuntimeException if the refresh token is not found in the database, was already used or has expired
      */
-    @Operation(summary = "Refresh access token", description = "Generates a new access token using the provided refresh token.")
+    @Operation(summary = "Refresh access token", description = "Generates a new access token using the provided refresh token. The refresh token can be used once and is replaced by the returned one.")
     @PostMapping("/refreshToken")
     public RefreshTokenDto refreshToken(@RequestBody RefreshTokenRequestDto refreshTokenRequestDTO) {
-        return refreshTokenServiceImpl.findByToken(refreshTokenRequestDTO.getToken())
-                .map(refreshTokenServiceImpl::verifyExpiration)
-                .map(RefreshToken::getUserInfo)
-                .map(userInfo -> {
-                    String accessToken = jwtService.generateToken(userInfo.getUsername());
-                    return new RefreshTokenDto(accessToken);
-                }).orElseThrow(() -> new RuntimeException("Refresh Token is not in DB..!!"));
+        IssuedRefreshTokenDto refreshToken = refreshTokenServiceImpl.rotateRefreshToken(refreshTokenRequestDTO.getToken());
+        String accessToken = jwtService.generateToken(userDetailService.loadUserByUsername(refreshToken.username()));
+        return new RefreshTokenDto(accessToken, refreshToken.token());
     }
 
     /**
-     * Logs out the user by deleting the given refresh token.
+     * Logs out the user by deleting the given refresh token and blacklisting the access token the request was sent with.
      *
      * @param refreshTokenRequestDTO the refresh token to delete
+     * @param authorization the Authorization header of the request, if any
      * @return a response indicating the logout was successful
      */
-    @Operation(summary = "Logout user", description = "Logs out the user by deleting the given refresh token.")
+    @Operation(summary = "Logout user", description = "Logs out the user by deleting the given refresh token and revoking the access token.")
     @PostMapping("/logout")
-    public ResponseEntity<String> logout(@RequestBody RefreshTokenRequestDto refreshTokenRequestDTO) {
+    public ResponseEntity<String> logout(@RequestBody RefreshTokenRequestDto refreshTokenRequestDTO,
+                                         @RequestHeader(value = "Authorization", required = false) String authorization) {
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            String token = authorization.substring(7);
+            try {
+                tokenService.blacklistToken(token, jwtService.parseToken(token).getExpiration());
+            } catch (JwtException | IllegalArgumentException e) {
+                // Expired and invalid tokens are rejected anyway, so there is nothing to revoke
+            }
+        }
         try {
             refreshTokenServiceImpl.deleteToken(refreshTokenRequestDTO);
             return ResponseEntity.ok("Logout successful. Refresh Token deleted.");
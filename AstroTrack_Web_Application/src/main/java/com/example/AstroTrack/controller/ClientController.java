@@ -2,26 +2,37 @@ package com.example.AstroTrack.controller;
 
 import com.example.AstroTrack.dto.ApiResponse;
 import com.example.AstroTrack.dto.ClientDto;
+import com.example.AstroTrack.dto.ClientImageDto;
+import com.example.AstroTrack.dto.ClientSliceDto;
+import com.example.AstroTrack.dto.ClientSuggestionDto;
+import com.example.AstroTrack.dto.ImageSize;
 import com.example.AstroTrack.dto.ViewAllClientsDto;
+import com.example.AstroTrack.service.ClientSuggestService;
+import com.example.AstroTrack.service.ImageStorageService;
 import com.example.AstroTrack.service.Impl.ClientServiceImpl;
 import com.example.AstroTrack.utils.ResponseUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
 import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.channels.Channels;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Controller to handle client-related requests.
@@ -31,23 +42,35 @@ import java.util.Set;
 @Tag(name = "Client", description = "APIs for managing clients")
 public class ClientController {
 
+    /**
+     * Response header carrying the cursor of the next slice in keyset pagination.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     ClientServiceImpl clientServiceImpl;
 
     @Autowired
     private Validator validator;
 
+    @Autowired
+    private ImageStorageService imageStorageService;
+
+    @Autowired
+    private ClientSuggestService clientSuggestService;
+
     /**
      * Retrieves a client by ID with pagination for consultations.
      *
      * @param id the ID of the client to retrieve
      * @param pageNo the page number for pagination
+     * @param include optional extra data to include, "image" adds the client's image to the response
      * @return a response containing the client data
      */
-    @Operation(summary = "Get client by ID with consultation", description = "Retrieves a client by ID with its consultation with pagination.")
+    @Operation(summary = "Get client by ID with consultation", description = "Retrieves a client by ID with its consultation with pagination. The image is only included with include=image.")
     @GetMapping("/getById/{id}")
-    public ResponseEntity<ApiResponse<ClientDto>> getClient(@PathVariable Long id, @RequestParam int pageNo) {
-        ClientDto clientDto = clientServiceImpl.getClientById(id, pageNo);
+    public ResponseEntity<ApiResponse<ClientDto>> getClient(@PathVariable Long id, @RequestParam int pageNo, @RequestParam(required = false) String include) {
+        ClientDto clientDto = clientServiceImpl.getClientById(id, pageNo, "image".equalsIgnoreCase(include));
         return ResponseUtil.success(clientDto, "Client with id " + id + " retrieved successfully!");
     }
 
@@ -79,49 +102,96 @@ public class ClientController {
     }
 
     /**
-     * Retrieves the image of a client by ID.
+     * Streams a rendition of a client's image directly from the image store.
+     * Responses carry a strong ETag derived from the image content and answer conditional requests with 304.
+     * Requests that pass the current image version in {@code v} may cache the response forever.
      *
      * @param id the ID of the client
-     * @return a response containing the client's image as a byte array
+     * @param size the requested rendition: original, small, medium or large
+     * @param version the image version the caller expects, as returned in the client's imageKey
+     * @param webRequest the current request, used for conditional request handling
+     * @param response the HTTP response the image is written to
+     * @throws IOException if an input-output error occurs
      */
+    @Operation(summary = "Get client image", description = "Streams the client's image or one of its thumbnails.")
     @GetMapping("/image/{id}")
-    public ResponseEntity<byte[]> getClientImage(@PathVariable Long id) {
-        ClientDto clientOptional = clientServiceImpl.getClientById(id, 0);
+    public void getClientImage(@PathVariable Long id, @RequestParam(defaultValue = "original") String size,
+                               @RequestParam(name = "v", required = false) String version,
+                               ServletWebRequest webRequest, HttpServletResponse response) throws IOException {
+        ClientImageDto clientImageDto = clientServiceImpl.getClientImage(id, ImageSize.from(size));
+
+        CacheControl cacheControl = clientImageDto.getVersion().equals(version)
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable()
+                : CacheControl.noCache().cachePrivate();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        if (webRequest.checkNotModified("\"" + clientImageDto.getImageKey() + "\"")) {
+            return;
+        }
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + clientOptional.getName() + "-image.jpg\"")
-                .contentType(MediaType.IMAGE_JPEG)
-                .body(clientOptional.getImage());
+        String extension = MediaType.parseMediaType(clientImageDto.getContentType()).getSubtype().replace("jpeg", "jpg");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + clientImageDto.getName() + "-image." + extension + "\"");
+        response.setContentType(clientImageDto.getContentType());
+        response.setContentLengthLong(imageStorageService.size(clientImageDto.getImageKey()));
+        imageStorageService.transferTo(clientImageDto.getImageKey(), Channels.newChannel(response.getOutputStream()));
     }
 
     /**
      * Retrieves a paginated and sorted list of all clients.
+     * When a cursor is given, keyset pagination is used instead of the page number and the cursor of the
+     * next slice is returned in the {@value #NEXT_CURSOR_HEADER} header.
      *
      * @param pageNo the page number for pagination
      * @param sort the sorting criteria
+     * @param cursor the cursor of the slice to retrieve, empty for the first slice
      * @return a response containing the paginated and sorted list of clients
      */
-    @Operation(summary = "View all clients", description = "Retrieves a paginated and sorted list of all clients.")
+    @Operation(summary = "View all clients", description = "Retrieves a paginated and sorted list of all clients. Pass cursor for keyset pagination.")
     @GetMapping("/viewAllClients/{pageNo}")
-    public ResponseEntity<ApiResponse<List<ViewAllClientsDto>>> viewAllClients(@PathVariable int pageNo, @RequestParam String sort) {
+    public ResponseEntity<ApiResponse<List<ViewAllClientsDto>>> viewAllClients(@PathVariable int pageNo, @RequestParam String sort, @RequestParam(required = false) String cursor) {
+        if (cursor != null) {
+            ClientSliceDto clientSliceDto = clientServiceImpl.viewAllClients(cursor, sort);
+            return ResponseUtil.success(clientSliceDto.getClients(), "All clients retrieved successfully", nextCursorHeaders(clientSliceDto));
+        }
         List<ViewAllClientsDto> viewAllClientsDtos = clientServiceImpl.viewAllClients(pageNo, sort);
         return ResponseUtil.success(viewAllClientsDtos, "All clients retrieved successfully");
     }
 
     /**
      * Filters clients based on the provided criteria.
+     * When a cursor is given, keyset pagination is used instead of the page number and the cursor of the
+     * next slice is returned in the {@value #NEXT_CURSOR_HEADER} header.
      *
      * @param pageNo the page number for pagination
      * @param filterName the filter criteria
+     * @param cursor the cursor of the slice to retrieve, empty for the first slice
      * @return a response containing the filtered list of clients
      */
-    @Operation(summary = "Filter clients", description = "Filters clients based on the provided criteria.")
+    @Operation(summary = "Filter clients", description = "Filters clients based on the provided criteria. Pass cursor for keyset pagination.")
     @GetMapping("/filter")
-    public ResponseEntity<ApiResponse<List<ViewAllClientsDto>>> filterClients(@RequestParam int pageNo, @RequestParam String filterName) {
+    public ResponseEntity<ApiResponse<List<ViewAllClientsDto>>> filterClients(@RequestParam(defaultValue = "0") int pageNo, @RequestParam String filterName, @RequestParam(required = false) String cursor) {
+        if (cursor != null) {
+            ClientSliceDto clientSliceDto = clientServiceImpl.filterClients(cursor, filterName);
+            return ResponseUtil.success(clientSliceDto.getClients(), "Clients filtered successfully!", nextCursorHeaders(clientSliceDto));
+        }
         List<ViewAllClientsDto> viewAllClientsDtos = clientServiceImpl.filterClients(pageNo, filterName);
         return ResponseUtil.success(viewAllClientsDtos, "Clients filtered successfully!");
     }
 
+    /**
+     * Suggests clients whose name, or a word of it, starts with the typed text.
+     * Suggestions are answered from memory without querying the database.
+     *
+     * @param q the typed text
+     * @param limit the maximum number of suggestions
+     * @return a response containing the suggested clients
+     */
+    @Operation(summary = "Suggest clients", description = "Suggests clients whose name or a word of it starts with the typed text, for autocomplete.")
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<ClientSuggestionDto>>> suggestClients(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        List<ClientSuggestionDto> suggestions = clientSuggestService.suggest(q, limit);
+        return ResponseUtil.success(suggestions, "Client suggestions retrieved successfully!");
+    }
+
     /**
      * Updates a client by ID.
      *
@@ -162,4 +232,18 @@ public class ClientController {
         clientServiceImpl.deleteClient(id);
         return ResponseUtil.delete(id, "Client with id " + id + " deleted successfully!");
     }
+
+    /**
+     * Builds the response headers carrying the cursor of the next slice.
+     *
+     * @param clientSliceDto the slice of clients
+     * @return the response headers, without a cursor if this is the last slice
+     */
+    private HttpHeaders nextCursorHeaders(ClientSliceDto clientSliceDto) {
+        HttpHeaders headers = new HttpHeaders();
+        if (clientSliceDto.getNextCursor() != null) {
+            headers.set(NEXT_CURSOR_HEADER, clientSliceDto.getNextCursor());
+        }
+        return headers;
+    }
 }
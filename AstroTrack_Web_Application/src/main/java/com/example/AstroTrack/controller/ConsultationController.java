@@ -2,8 +2,12 @@ package com.example.AstroTrack.controller;
 
 import com.example.AstroTrack.dto.ApiResponse;
 import com.example.AstroTrack.dto.ConsultationDto;
+import com.example.AstroTrack.dto.FinancialLedgerVerificationDto;
 import com.example.AstroTrack.dto.FinancialReportDto;
+import com.example.AstroTrack.dto.FinancialSeriesDto;
+import com.example.AstroTrack.dto.ReportGranularity;
 import com.example.AstroTrack.exception.ConsultationListEmpty;
+import com.example.AstroTrack.service.FinancialLedgerService;
 import com.example.AstroTrack.service.Impl.ConsultationServiceImpl;
 import com.example.AstroTrack.utils.ResponseUtil;
 import io.swagger.v3.oas.annotations.Operation;
@@ -29,6 +33,9 @@ public class ConsultationController {
     @Autowired
     ConsultationServiceImpl consultationServiceImpl;
 
+    @Autowired
+    FinancialLedgerService financialLedgerService;
+
     /**
      * Creates a new consultation for a given client.
      *
@@ -112,4 +119,45 @@ public class ConsultationController {
         FinancialReportDto financialReportDto = consultationServiceImpl.getFinancialReport(date);
         return ResponseUtil.success(financialReportDto, "Financial report retrieved successfully!");
     }
+
+    /**
+     * Retrieves the earnings and dues of a date range, bucketed by day, week or month.
+     *
+     * @param from the first day of the range
+     * @param to the last day of the range
+     * @param granularity the width of the buckets: day, week or month
+     * @return a response containing one entry per bucket of the range
+     */
+    @Operation(summary = "Get financial series", description = "Retrieves earnings and dues for every day, week or month of a date range in one call.")
+    @GetMapping("/financialReport/series")
+    public ResponseEntity<ApiResponse<FinancialSeriesDto>> getFinancialSeries(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                              @RequestParam(defaultValue = "month") String granularity) {
+        FinancialSeriesDto financialSeriesDto = consultationServiceImpl.getFinancialSeries(from, to, ReportGranularity.from(granularity));
+        return ResponseUtil.success(financialSeriesDto, "Financial series retrieved successfully!");
+    }
+
+    /**
+     * Recomputes the financial ledger from the consultations and verifies the result.
+     *
+     * @return a response containing the verification result
+     */
+    @Operation(summary = "Rebuild financial ledger", description = "Recomputes the pre-aggregated financial ledger from the consultations and verifies it.")
+    @PostMapping("/financialReport/rebuild")
+    public ResponseEntity<ApiResponse<FinancialLedgerVerificationDto>> rebuildFinancialLedger() {
+        FinancialLedgerVerificationDto verification = financialLedgerService.rebuild();
+        return ResponseUtil.success(verification, "Financial ledger rebuilt successfully!");
+    }
+
+    /**
+     * Compares the financial ledger with the amounts computed directly from the consultations.
+     *
+     * @return a response containing the verification result
+     */
+    @Operation(summary = "Verify financial ledger", description = "Compares the pre-aggregated financial ledger with the consultations.")
+    @GetMapping("/financialReport/verify")
+    public ResponseEntity<ApiResponse<FinancialLedgerVerificationDto>> verifyFinancialLedger() {
+        FinancialLedgerVerificationDto verification = financialLedgerService.verify();
+        return ResponseUtil.success(verification, "Financial ledger verified successfully!");
+    }
 }
@@ -1,5 +1,6 @@
 package com.example.AstroTrack.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
@@ -59,10 +60,16 @@ public class ClientDto {
     String phoneNumber;
 
     /**
-     * The image of the client.
+     * The image of the client, only present when explicitly requested.
      */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private byte[] image;
 
+    /**
+     * The content hash of the client's image, used to build cacheable image URLs.
+     */
+    String imageKey;
+
     /**
      * The list of consultations for the client.
      */
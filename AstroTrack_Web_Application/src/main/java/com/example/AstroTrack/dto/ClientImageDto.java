@@ -0,0 +1,41 @@
+package com.example.AstroTrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) describing where a rendition of a client's image is stored.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClientImageDto {
+
+    /**
+     * The unique identifier of the client.
+     */
+    private Long id;
+
+    /**
+     * The name of the client.
+     */
+    private String name;
+
+    /**
+     * The storage key of the requested image rendition.
+     */
+    private String imageKey;
+
+    /**
+     * The content hash of the original image, which changes whenever a new image is uploaded.
+     */
+    private String version;
+
+    /**
+     * The media type of the requested image rendition.
+     */
+    private String contentType;
+}
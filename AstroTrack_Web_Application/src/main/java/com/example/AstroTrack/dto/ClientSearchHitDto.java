@@ -0,0 +1,40 @@
+package com.example.AstroTrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Comparator;
+
+/**
+ * Data Transfer Object (DTO) for a client matching a name search.
+ */
+@Getter
+@AllArgsConstructor
+public class ClientSearchHitDto {
+
+    /**
+     * Orders hits by rank, then by normalized name and finally by client ID.
+     */
+    public static final Comparator<ClientSearchHitDto> RANK_ORDER = (left, right) -> {
+        int order = Integer.compare(left.rank, right.rank);
+        if (order == 0) {
+            order = left.name.compareTo(right.name);
+        }
+        return order != 0 ? order : Long.compare(left.id, right.id);
+    };
+
+    /**
+     * The unique identifier of the client.
+     */
+    private Long id;
+
+    /**
+     * The normalized name of the client.
+     */
+    private String name;
+
+    /**
+     * The rank of the match: 0 if the name starts with the query, 1 if a word of the name does, 2 otherwise.
+     */
+    private int rank;
+}
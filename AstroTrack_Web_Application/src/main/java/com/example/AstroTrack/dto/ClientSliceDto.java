@@ -0,0 +1,28 @@
+package com.example.AstroTrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for a slice of clients returned by keyset pagination.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClientSliceDto {
+
+    /**
+     * The clients of this slice.
+     */
+    private List<ViewAllClientsDto> clients;
+
+    /**
+     * The cursor to pass to fetch the next slice, or null if this is the last slice.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,26 @@
+package com.example.AstroTrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) for a client name suggested while typing.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClientSuggestionDto {
+
+    /**
+     * The unique identifier of the client.
+     */
+    private Long id;
+
+    /**
+     * The name of the client.
+     */
+    private String name;
+}
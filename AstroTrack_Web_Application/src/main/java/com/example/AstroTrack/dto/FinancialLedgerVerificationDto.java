@@ -0,0 +1,33 @@
+package com.example.AstroTrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for the result of checking the financial ledger against the consultations.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class FinancialLedgerVerificationDto {
+
+    /**
+     * Whether every ledger row matches the amounts computed from the consultations.
+     */
+    private boolean consistent;
+
+    /**
+     * The number of months checked, including the totals row.
+     */
+    private int periodsChecked;
+
+    /**
+     * A description of every month whose ledger row does not match.
+     */
+    private List<String> mismatches;
+}
@@ -0,0 +1,40 @@
+package com.example.AstroTrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for the earnings and dues of a date range, bucketed by day, week or month.
+ * Every bucket of the range is present, buckets without consultations have zero amounts.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class FinancialSeriesDto {
+
+    /**
+     * The width of the buckets.
+     */
+    private ReportGranularity granularity;
+
+    /**
+     * The first day of the range.
+     */
+    private LocalDate from;
+
+    /**
+     * The last day of the range.
+     */
+    private LocalDate to;
+
+    /**
+     * The buckets of the range in chronological order.
+     */
+    private List<FinancialSeriesPointDto> points;
+}
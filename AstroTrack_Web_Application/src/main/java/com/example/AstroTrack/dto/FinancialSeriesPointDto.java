@@ -0,0 +1,33 @@
+package com.example.AstroTrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object (DTO) for one bucket of a financial time series.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class FinancialSeriesPointDto {
+
+    /**
+     * The first day of the bucket.
+     */
+    private LocalDate periodStart;
+
+    /**
+     * The earnings of the consultations in the bucket.
+     */
+    private Double earning;
+
+    /**
+     * The due amount of the consultations in the bucket.
+     */
+    private Double dueAmount;
+}
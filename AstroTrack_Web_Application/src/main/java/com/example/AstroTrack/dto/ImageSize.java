@@ -0,0 +1,67 @@
+package com.example.AstroTrack.dto;
+
+import java.util.Locale;
+
+/**
+ * Renditions in which a client image can be served.
+ */
+public enum ImageSize {
+
+    /**
+     * The image as it was uploaded.
+     */
+    ORIGINAL(0),
+
+    /**
+     * Avatar sized thumbnail.
+     */
+    SMALL(64),
+
+    /**
+     * Thumbnail for client cards and lists.
+     */
+    MEDIUM(160),
+
+    /**
+     * Thumbnail for the client detail page.
+     */
+    LARGE(320);
+
+    /**
+     * The maximum width and height of the rendition in pixels, 0 for the original image.
+     */
+    private final int maxDimension;
+
+    ImageSize(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    /**
+     * Returns the maximum width and height of the rendition in pixels.
+     *
+     * @return the maximum dimension, 0 for the original image
+     */
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    /**
+     * Returns the name of the rendition as used in storage keys and request parameters.
+     *
+     * @return the lower case name of the rendition
+     */
+    public String variantName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Parses an image size from a request parameter, ignoring case.
+     *
+     * @param value the request parameter value
+     * @return the matching image size
+     * @throws IllegalArgumentException if the value does not name an image size
+     */
+    public static ImageSize from(String value) {
+        return ImageSize.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.AstroTrack.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for invalidations broadcast to every application instance.
+ *
+ * @param type what was invalidated
+ * @param name the digest of the revoked token, the name of the cache to evict from, or the new name of a changed client
+ * @param keys the cache keys to evict, an empty list to clear the whole cache, or the ID of a changed or removed client
+ * @param expiresAt the time the revoked token expires, in milliseconds since the epoch
+ */
+public record InvalidationEventDto(Type type, String name, List<String> keys, long expiresAt) {
+
+    /**
+     * Kinds of invalidations.
+     */
+    public enum Type {
+        TOKEN_REVOKED,
+        CACHE_EVICTED,
+        CLIENT_CHANGED,
+        CLIENT_REMOVED
+    }
+
+    /**
+     * Creates the invalidation of a revoked access token.
+     *
+     * @param tokenDigest the digest of the token, as computed by DigestUtil.tokenDigest
+     * @param expiresAt the time the token expires, in milliseconds since the epoch
+     * @return the invalidation
+     */
+    public static InvalidationEventDto tokenRevoked(String tokenDigest, long expiresAt) {
+        return new InvalidationEventDto(Type.TOKEN_REVOKED, tokenDigest, List.of(), expiresAt);
+    }
+
+    /**
+     * Creates the invalidation of cache entries.
+     *
+     * @param cacheName the name of the cache
+     * @param keys the keys to evict, or an empty list to clear the whole cache
+     * @return the invalidation
+     */
+    public static InvalidationEventDto cacheEvicted(String cacheName, List<String> keys) {
+        return new InvalidationEventDto(Type.CACHE_EVICTED, cacheName, List.copyOf(keys), 0);
+    }
+
+    /**
+     * Creates the invalidation of a created or renamed client in the client name indexes.
+     *
+     * @param clientId the client ID
+     * @param clientName the name of the client, may be null
+     * @return the invalidation
+     */
+    public static InvalidationEventDto clientChanged(Long clientId, String clientName) {
+        return new InvalidationEventDto(Type.CLIENT_CHANGED, clientName, List.of(String.valueOf(clientId)), 0);
+    }
+
+    /**
+     * Creates the invalidation of a deleted client in the client name indexes.
+     *
+     * @param clientId the client ID
+     * @return the invalidation
+     */
+    public static InvalidationEventDto clientRemoved(Long clientId) {
+        return new InvalidationEventDto(Type.CLIENT_REMOVED, null, List.of(String.valueOf(clientId)), 0);
+    }
+
+    /**
+     * Returns the ID of the changed or removed client.
+     *
+     * @return the client ID
+     */
+    public Long clientId() {
+        return Long.valueOf(keys.get(0));
+    }
+}
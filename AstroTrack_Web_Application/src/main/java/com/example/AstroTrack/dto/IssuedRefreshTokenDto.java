@@ -0,0 +1,14 @@
+package com.example.AstroTrack.dto;
+
+import java.util.Date;
+
+/**
+ * Data Transfer Object (DTO) for a newly issued refresh token. This is the only place the token itself is available,
+ * as only its digest is stored.
+ *
+ * @param token the refresh token to hand to the client
+ * @param username the username of the user the token was issued to
+ * @param expiryDate the expiry date of the token
+ */
+public record IssuedRefreshTokenDto(String token, String username, Date expiryDate) {
+}
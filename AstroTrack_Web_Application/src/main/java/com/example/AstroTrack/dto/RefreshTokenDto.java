@@ -16,4 +16,9 @@ public class RefreshTokenDto {
      * The new access token generated using the refresh token.
      */
     String accessToken;
+
+    /**
+     * The new refresh token, which replaces the one sent with the request.
+     */
+    String refreshToken;
 }
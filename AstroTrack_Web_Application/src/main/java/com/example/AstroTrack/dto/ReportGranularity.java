@@ -0,0 +1,80 @@
+package com.example.AstroTrack.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * Width of the buckets of a financial time series.
+ */
+public enum ReportGranularity {
+
+    /**
+     * One bucket per calendar day.
+     */
+    DAY(ChronoUnit.DAYS),
+
+    /**
+     * One bucket per ISO week, starting on Monday.
+     */
+    WEEK(ChronoUnit.WEEKS),
+
+    /**
+     * One bucket per calendar month.
+     */
+    MONTH(ChronoUnit.MONTHS);
+
+    /**
+     * The calendar unit covered by one bucket.
+     */
+    private final ChronoUnit unit;
+
+    ReportGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * Returns the calendar unit covered by one bucket.
+     *
+     * @return the calendar unit
+     */
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+
+    /**
+     * Returns the name of the granularity as understood by PostgreSQL's {@code date_trunc}.
+     *
+     * @return the lower case name of the granularity
+     */
+    public String fieldName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the first day of the bucket containing the given date.
+     *
+     * @param date the date
+     * @return the start of the bucket
+     */
+    public LocalDate truncate(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * Parses a granularity from a request parameter, ignoring case.
+     *
+     * @param value the request parameter value
+     * @return the matching granularity
+     * @throws IllegalArgumentException if the value does not name a granularity
+     */
+    public static ReportGranularity from(String value) {
+        return ReportGranularity.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -27,6 +27,11 @@ public class ViewAllClientsDto {
      */
     String phoneNumber;
 
+    /**
+     * The content hash of the client's image, used to build cacheable image URLs.
+     */
+    String imageKey;
+
     /**
      * Constructor for ViewAllClientsDto with specific fields.
      *
@@ -12,6 +12,7 @@ import java.util.List;
 
 /**
  * Entity class representing a client.
+ * The schema and its indexes are managed by the Flyway migrations in db/migration.
  */
 @Getter
 @Setter
@@ -55,10 +56,14 @@ public class Client {
     private String phoneNumber;
 
     /**
-     * The image of the client.
+     * The content hash of the client's image in the image store.
      */
-    @Lob
-    private byte[] image;
+    private String imageKey;
+
+    /**
+     * The media type of the client's image, detected once when the image is stored.
+     */
+    private String imageContentType;
 
     /**
      * Indicates whether the client is deleted.
@@ -80,15 +85,15 @@ public class Client {
      * @param dateAndTimeOfBirth the date and time of birth of the client
      * @param placeOfBirth the place of birth of the client
      * @param phoneNumber the phone number of the client
-     * @param image the image of the client
+     * @param imageKey the content hash of the client's image
      */
-    public Client(String name, int age, Date dateAndTimeOfBirth, String placeOfBirth, String phoneNumber, byte[] image) {
+    public Client(String name, int age, Date dateAndTimeOfBirth, String placeOfBirth, String phoneNumber, String imageKey) {
         this.name = name;
         this.dateAndTimeOfBirth = dateAndTimeOfBirth;
         this.age = age;
         this.placeOfBirth = placeOfBirth;
         this.phoneNumber = phoneNumber;
-        this.image = image;
+        this.imageKey = imageKey;
     }
 
     /**
@@ -11,6 +11,7 @@ import java.util.Date;
 
 /**
  * Entity class representing a consultation.
+ * The schema and its indexes are managed by the Flyway migrations in db/migration.
  */
 @Getter
 @Setter
@@ -55,9 +56,10 @@ public class Consultation {
 
     /**
      * The client associated with the consultation.
+     * Loaded lazily, so reading a consultation only reads its own columns and the client ID.
      */
     @JsonBackReference
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Client client;
 
     /**
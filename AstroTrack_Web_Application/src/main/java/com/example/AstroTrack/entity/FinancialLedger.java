@@ -0,0 +1,59 @@
+package com.example.AstroTrack.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Entity class representing the pre-aggregated earnings and dues of one month.
+ * The row with year and month 0 holds the totals over all months.
+ * The schema and its indexes are managed by the Flyway migrations in db/migration.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "financial_ledger", uniqueConstraints = @UniqueConstraint(name = "uk_financial_ledger_period", columnNames = {"ledger_year", "ledger_month"}))
+public class FinancialLedger {
+
+    /**
+     * The year and month of the row holding the totals over all months.
+     */
+    public static final int TOTALS_PERIOD = 0;
+
+    /**
+     * The unique identifier of the ledger row.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The year of the consultations summed in this row.
+     */
+    @Column(name = "ledger_year", nullable = false)
+    private int year;
+
+    /**
+     * The month of the consultations summed in this row, from 1 to 12.
+     */
+    @Column(name = "ledger_month", nullable = false)
+    private int month;
+
+    /**
+     * The sum of the prices of the consultations.
+     */
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal earnings;
+
+    /**
+     * The sum of the due amounts of the consultations.
+     */
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal dueAmount;
+}
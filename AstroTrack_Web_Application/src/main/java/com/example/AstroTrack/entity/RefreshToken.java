@@ -10,8 +10,12 @@ import java.util.Date;
 
 /**
  * Entity class representing a refresh token.
+ * Only the digest of the token is stored; the token itself is handed to the client once and never kept.
+ * The schema and its indexes are managed by the Flyway migrations in db/migration.
  */
 @Entity
+@Table(name = "refresh_token",
+        uniqueConstraints = @UniqueConstraint(name = "uk_refresh_token_token_hash", columnNames = "token_hash"))
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -26,19 +30,21 @@ public class RefreshToken {
     private int id;
 
     /**
-     * The refresh token string.
+     * The URL safe Base64 encoded SHA-256 digest of the refresh token.
      */
-    private String token;
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
 
     /**
      * The expiry date of the refresh token.
      */
+    @Column(nullable = false)
     private Date expiryDate;
 
     /**
-     * The user associated with the refresh token.
+     * The user associated with the refresh token. A user holds one token per signed in session.
      */
-    @OneToOne
+    @ManyToOne
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     private Users userInfo;
 }
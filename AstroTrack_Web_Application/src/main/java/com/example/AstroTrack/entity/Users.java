@@ -1,17 +1,25 @@
 package com.example.AstroTrack.entity;
 
+import com.example.AstroTrack.config.UserCacheEvictionListener;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Getter;
 import lombok.Setter;
 
 /**
  * Entity class representing a user.
+ * The schema and its indexes are managed by the Flyway migrations in db/migration.
+ * Changes to users evict the cached user details.
  */
 @Getter
 @Setter
 @Entity
+@Table(name = "users", uniqueConstraints = @UniqueConstraint(name = "uk_users_username", columnNames = "username"))
+@EntityListeners(UserCacheEvictionListener.class)
 public class Users {
 
     /**
@@ -1,6 +1,7 @@
 package com.example.AstroTrack.exception;
 
 import com.example.AstroTrack.dto.ExceptionDto;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -71,4 +72,35 @@ public class GlobalExceptionHandler {
         error.setTimeStamp(System.currentTimeMillis());
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
     }
+
+    /**
+     * Handles ImageNotFoundException and returns a response entity with a not found status.
+     *
+     * @param exc the exception to handle
+     * @return a response entity containing the image not found exception DTO and not found status
+     */
+    @ExceptionHandler
+    public ResponseEntity<ExceptionDto> handleException(ImageNotFoundException exc) {
+        ExceptionDto error = new ExceptionDto();
+        error.setStatus(HttpStatus.NOT_FOUND.value());
+        error.setMessage(exc.getMessage());
+        error.setTimeStamp(System.currentTimeMillis());
+        return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Handles TooManyLoginAttemptsException and returns a response entity with a too many requests status.
+     * The client is asked to retry after a second, by which time the login queue has usually drained.
+     *
+     * @param exc the exception to handle
+     * @return a response entity containing the too many login attempts exception DTO and too many requests status
+     */
+    @ExceptionHandler
+    public ResponseEntity<ExceptionDto> handleException(TooManyLoginAttemptsException exc) {
+        ExceptionDto error = new ExceptionDto();
+        error.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        error.setMessage(exc.getMessage());
+        error.setTimeStamp(System.currentTimeMillis());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").body(error);
+    }
 }
@@ -0,0 +1,16 @@
+package com.example.AstroTrack.exception;
+
+/**
+ * Exception thrown when a client has no stored image.
+ */
+public class ImageNotFoundException extends RuntimeException {
+
+    /**
+     * Constructs a new ImageNotFoundException with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public ImageNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.AstroTrack.exception;
+
+/**
+ * Exception thrown when a login is rejected because too many logins are already waiting for password verification.
+ */
+public class TooManyLoginAttemptsException extends RuntimeException {
+
+    /**
+     * Constructs a new TooManyLoginAttemptsException with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public TooManyLoginAttemptsException(String message) {
+        super(message);
+    }
+}
@@ -7,8 +7,12 @@ import com.example.AstroTrack.dto.UpdateClientDto;
 import com.example.AstroTrack.dto.ViewAllClientsDto;
 import com.example.AstroTrack.entity.Client;
 import com.example.AstroTrack.entity.Consultation;
+import com.example.AstroTrack.repository.projection.ClientConsultationRow;
+import com.example.AstroTrack.repository.projection.ClientDetailView;
+import com.example.AstroTrack.repository.projection.ClientSummaryView;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -21,23 +25,18 @@ public class ClientMapper {
 
     /**
      * Maps a Client entity to a ClientDto.
+     * Only the given consultations are mapped; the client's consultations collection is never accessed, so
+     * mapping does not initialize it.
      *
      * @param client the Client entity to map
      * @param dueAmount the due amount to set in the ClientDto
-     * @param consultations the list of consultations to set in the ClientDto
+     * @param consultations the list of consultations to set in the ClientDto, may be null
      * @return the mapped ClientDto
      */
     public ClientDto mapToClientDto(Client client, Double dueAmount, List<Consultation> consultations) {
-        ClientDto clientDto = new ClientDto();
-        clientDto.setId(client.getId());
-        clientDto.setName(client.getName());
-        clientDto.setDateAndTimeOfBirth(client.getDateAndTimeOfBirth());
-        clientDto.setAge(client.getAge());
-        clientDto.setPlaceOfBirth(client.getPlaceOfBirth());
-        clientDto.setPhoneNumber(client.getPhoneNumber());
-        clientDto.setImage(client.getImage());
+        ClientDto clientDto = mapToClientDto(client);
         clientDto.setBalance(dueAmount);
-        if (client.getConsultations() != null && !client.getConsultations().isEmpty()) {
+        if (consultations != null && !consultations.isEmpty()) {
             List<ConsultationDto> consultationDtoList = consultations.stream()
                     .map(consultation -> mapToConsultationDto(Optional.ofNullable(consultation)))
                     .collect(Collectors.toList());
@@ -60,7 +59,48 @@ public class ClientMapper {
         clientDto.setAge(client.getAge());
         clientDto.setPlaceOfBirth(client.getPlaceOfBirth());
         clientDto.setPhoneNumber(client.getPhoneNumber());
-        clientDto.setImage(client.getImage());
+        clientDto.setImageKey(client.getImageKey());
+        return clientDto;
+    }
+
+    /**
+     * Maps a client detail view to a ClientDto.
+     *
+     * @param client the client detail view to map
+     * @return the mapped ClientDto
+     */
+    public ClientDto mapToClientDto(ClientDetailView client) {
+        ClientDto clientDto = new ClientDto();
+        clientDto.setId(client.getId());
+        clientDto.setName(client.getName());
+        clientDto.setDateAndTimeOfBirth(client.getDateAndTimeOfBirth());
+        clientDto.setAge(client.getAge());
+        clientDto.setPlaceOfBirth(client.getPlaceOfBirth());
+        clientDto.setPhoneNumber(client.getPhoneNumber());
+        clientDto.setImageKey(client.getImageKey());
+        return clientDto;
+    }
+
+    /**
+     * Maps the rows of the client detail query to a ClientDto.
+     *
+     * @param rows the rows of the client detail query, at least one
+     * @return the mapped ClientDto
+     */
+    public ClientDto mapToClientDto(List<ClientConsultationRow> rows) {
+        ClientConsultationRow header = rows.get(0);
+        ClientDto clientDto = mapToClientDto(header);
+        clientDto.setBalance(header.getBalance());
+        List<ConsultationDto> consultationDtoList = new ArrayList<>(rows.size());
+        for (ClientConsultationRow row : rows) {
+            if (row.getConsultationId() != null) {
+                consultationDtoList.add(new ConsultationDto(row.getConsultationId(), row.getConsultationDate(), row.getNotes(),
+                        row.getPrice(), row.getDueAmount(), row.getNextAppointment()));
+            }
+        }
+        if (!consultationDtoList.isEmpty()) {
+            clientDto.setConsultations(consultationDtoList);
+        }
         return clientDto;
     }
 
@@ -72,17 +112,19 @@ public class ClientMapper {
      */
     public Client mapToClient(ClientDto clientDto) {
         return new Client(clientDto.getName(), clientDto.getAge(), clientDto.getDateAndTimeOfBirth(),
-                clientDto.getPlaceOfBirth(), clientDto.getPhoneNumber(), clientDto.getImage());
+                clientDto.getPlaceOfBirth(), clientDto.getPhoneNumber(), null);
     }
 
     /**
-     * Maps a Client entity to a ViewAllClientsDto.
+     * Maps a client summary view to a ViewAllClientsDto.
      *
-     * @param client the Client entity to map
+     * @param client the client summary view to map
      * @return the mapped ViewAllClientsDto
      */
-    public ViewAllClientsDto mapToViewAllClientsDto(Client client) {
-        return new ViewAllClientsDto(client.getId(), client.getName(), client.getPhoneNumber());
+    public ViewAllClientsDto mapToViewAllClientsDto(ClientSummaryView client) {
+        ViewAllClientsDto viewAllClientsDto = new ViewAllClientsDto(client.getId(), client.getName(), client.getPhoneNumber());
+        viewAllClientsDto.setImageKey(client.getImageKey());
+        return viewAllClientsDto;
     }
 
     /**
@@ -93,6 +135,6 @@ public class ClientMapper {
      */
     private UpdateClientDto mapToUpdateClientDto(Client client) {
         return new UpdateClientDto(client.getId(), client.getName(), client.getAge(),
-                client.getDateAndTimeOfBirth(), client.getPlaceOfBirth(), client.getPhoneNumber(), client.getImage());
+                client.getDateAndTimeOfBirth(), client.getPlaceOfBirth(), client.getPhoneNumber());
     }
 }
@@ -1,9 +1,15 @@
 package com.example.AstroTrack.repository;
 
 import com.example.AstroTrack.entity.Client;
+import com.example.AstroTrack.repository.projection.ClientConsultationRow;
+import com.example.AstroTrack.repository.projection.ClientDetailView;
+import com.example.AstroTrack.repository.projection.ClientSummaryView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -19,4 +25,96 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
      */
     @Query(value = "SELECT * FROM client WHERE id = :id AND is_deleted = false", nativeQuery = true)
     Optional<Client> findById(Long id);
+
+    /**
+     * Checks if a client exists and is not marked as deleted, without loading the client.
+     *
+     * @param id the ID of the client
+     * @return true if the client exists and is not deleted, false otherwise
+     */
+    @Query("SELECT COUNT(c) > 0 FROM Client c WHERE c.id = :id AND c.isDeleted = false")
+    boolean existsActiveById(@Param("id") Long id);
+
+    /**
+     * Finds a client by their ID, ensuring the client is not marked as deleted, and locks the client row against
+     * concurrent changes until the current transaction ends.
+     *
+     * @param id the ID of the client to find
+     * @return an Optional containing the found client, or empty if no client is found
+     */
+    @Query(value = "SELECT * FROM client WHERE id = :id AND is_deleted = false FOR UPDATE", nativeQuery = true)
+    Optional<Client> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Checks if a client exists and is not marked as deleted, and keeps the client from being deleted until the
+     * current transaction ends.
+     *
+     * @param id the ID of the client
+     * @return an Optional containing the client ID, or empty if the client does not exist or is deleted
+     */
+    @Query(value = "SELECT id FROM client WHERE id = :id AND is_deleted = false FOR SHARE", nativeQuery = true)
+    Optional<Long> lockActiveById(@Param("id") Long id);
+
+    /**
+     * Finds the detail columns of a client by their ID, ensuring the client is not marked as deleted.
+     *
+     * @param id the ID of the client to find
+     * @return an Optional containing the client detail view, or empty if no client is found
+     */
+    @Query("SELECT c.id AS id, c.name AS name, c.dateAndTimeOfBirth AS dateAndTimeOfBirth, c.age AS age, " +
+            "c.placeOfBirth AS placeOfBirth, c.phoneNumber AS phoneNumber, c.imageKey AS imageKey, " +
+            "c.imageContentType AS imageContentType FROM Client c WHERE c.id = :id AND c.isDeleted = false")
+    Optional<ClientDetailView> findDetailById(@Param("id") Long id);
+
+    /**
+     * Finds a client together with their due balance and one page of their consultations in a single statement.
+     * The balance is summed by the database and the page is read through a lateral join in chronological order,
+     * both over the consultations that are not marked as deleted and served by the partial index on
+     * (client_id, consultation_date, id).
+     * Returns one row per consultation of the page, or a single row with empty consultation columns if the page is
+     * empty, or no rows if the client is not found or marked as deleted.
+     *
+     * @param id the ID of the client to find
+     * @param offset the number of consultations to skip
+     * @param limit the number of consultations per page
+     * @return the rows of the client detail
+     */
+    @Query(value = "SELECT c.id AS \"id\", c.name AS \"name\", c.date_and_time_of_birth AS \"dateAndTimeOfBirth\", " +
+            "c.age AS \"age\", c.place_of_birth AS \"placeOfBirth\", c.phone_number AS \"phoneNumber\", c.image_key AS \"imageKey\", " +
+            "(SELECT COALESCE(SUM(d.due_amount), 0) FROM consultation d WHERE d.client_id = c.id AND d.is_deleted = false) AS \"balance\", " +
+            "p.id AS \"consultationId\", p.consultation_date AS \"consultationDate\", p.notes AS \"notes\", p.price AS \"price\", " +
+            "p.due_amount AS \"dueAmount\", p.next_appointment AS \"nextAppointment\" " +
+            "FROM client c LEFT JOIN LATERAL (SELECT * FROM consultation k WHERE k.client_id = c.id AND k.is_deleted = false " +
+            "ORDER BY k.consultation_date, k.id LIMIT :limit OFFSET :offset) p ON true " +
+            "WHERE c.id = :id AND c.is_deleted = false ORDER BY p.consultation_date, p.id", nativeQuery = true)
+    List<ClientConsultationRow> findDetailWithConsultationPage(@Param("id") Long id, @Param("offset") long offset, @Param("limit") int limit);
+
+    /**
+     * Finds the detail columns of all clients.
+     *
+     * @return a list of client detail views
+     */
+    @Query("SELECT c.id AS id, c.name AS name, c.dateAndTimeOfBirth AS dateAndTimeOfBirth, c.age AS age, " +
+            "c.placeOfBirth AS placeOfBirth, c.phoneNumber AS phoneNumber, c.imageKey AS imageKey, " +
+            "c.imageContentType AS imageContentType FROM Client c")
+    List<ClientDetailView> findAllDetails();
+
+    /**
+     * Finds the summary columns of all clients that are not marked as deleted.
+     *
+     * @return a list of client summary views
+     */
+    @Query("SELECT c.id AS id, c.name AS name, c.phoneNumber AS phoneNumber, c.imageKey AS imageKey FROM Client c " +
+            "WHERE c.isDeleted = false")
+    List<ClientSummaryView> findAllActiveSummaries();
+
+    /**
+     * Finds the summary columns of the given clients, ensuring the clients are not marked as deleted.
+     *
+     * @param ids the IDs of the clients to find
+     * @return a list of client summary views in no particular order
+     */
+    @Query("SELECT c.id AS id, c.name AS name, c.phoneNumber AS phoneNumber, c.imageKey AS imageKey FROM Client c " +
+            "WHERE c.id IN :ids AND c.isDeleted = false")
+    List<ClientSummaryView> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
 }
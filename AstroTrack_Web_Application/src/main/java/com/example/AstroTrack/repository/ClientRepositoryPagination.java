@@ -1,42 +1,74 @@
 package com.example.AstroTrack.repository;
 
 import com.example.AstroTrack.entity.Client;
-import org.springframework.data.domain.Page;
+import com.example.AstroTrack.repository.projection.ClientSummaryView;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.jpa.repository.Query;
 
 /**
  * Repository interface for paginated and sorted client entities.
+ * All queries return slices, so no count query is issued per page.
  */
 public interface ClientRepositoryPagination extends PagingAndSortingRepository<Client, Long> {
 
     /**
-     * Finds all clients, sorted by name in ascending order, where is_deleted is false.
+     * Finds all clients, sorted by name in ascending order with unnamed clients last, where is_deleted is false.
      *
      * @param pageable the pagination information
-     * @return a page of clients sorted by name
+     * @return a slice of client summaries sorted by name
      */
-    @Query(value = "SELECT * FROM client WHERE is_deleted = false ORDER BY name ASC", nativeQuery = true)
-    Page<Client> findAllSortedByName(Pageable pageable);
+    @Query("SELECT c.id AS id, c.name AS name, c.phoneNumber AS phoneNumber, c.imageKey AS imageKey FROM Client c " +
+            "WHERE c.isDeleted = false ORDER BY c.name ASC NULLS LAST, c.id ASC")
+    Slice<ClientSummaryView> findAllSortedByName(Pageable pageable);
 
     /**
-     * Finds clients by name where is_deleted is false.
+     * Finds all clients where is_deleted is false.
      *
-     * @param name the name of the client to find
      * @param pageable the pagination information
-     * @return a page of clients with the specified name
+     * @return a slice of all client summaries
      */
-    @Query(value = "SELECT * FROM client WHERE LOWER(name) LIKE LOWER(CONCAT('%', :name, '%')) AND is_deleted = false", nativeQuery = true)
-    Page<Client> findByName(@Param("name") String name, Pageable pageable);
+    @Query("SELECT c.id AS id, c.name AS name, c.phoneNumber AS phoneNumber, c.imageKey AS imageKey FROM Client c " +
+            "WHERE c.isDeleted = false ORDER BY c.id ASC")
+    Slice<ClientSummaryView> findAllSummaries(Pageable pageable);
 
     /**
-     * Finds all clients where is_deleted is false.
+     * Finds the clients following the given client in id order, where is_deleted is false.
      *
-     * @param pageable the pagination information
-     * @return a page of all clients
+     * @param id the ID of the last client of the previous slice, 0 for the first slice
+     * @param pageable the slice size, the page number must be 0
+     * @return a slice of client summaries sorted by id
+     */
+    @Query("SELECT c.id AS id, c.name AS name, c.phoneNumber AS phoneNumber, c.imageKey AS imageKey FROM Client c " +
+            "WHERE c.isDeleted = false AND c.id > :id ORDER BY c.id ASC")
+    Slice<ClientSummaryView> findAllAfterId(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Finds the named clients following the given client in (name, id) order, where is_deleted is false.
+     * The cursor is compared as a row value, so the scan of the active name index starts right at the cursor.
+     * Clients without a name never compare greater than a name, so they are read with
+     * {@link #findAllWithoutNameAfterId} once the named clients are exhausted.
+     *
+     * @param name the name of the last client of the previous slice, empty for the first slice
+     * @param id the ID of the last client of the previous slice, 0 for the first slice
+     * @param pageable the slice size, the page number must be 0
+     * @return a slice of client summaries sorted by name
+     */
+    @Query("SELECT c.id AS id, c.name AS name, c.phoneNumber AS phoneNumber, c.imageKey AS imageKey FROM Client c " +
+            "WHERE c.isDeleted = false AND (c.name, c.id) > (:name, :id) ORDER BY c.name ASC, c.id ASC")
+    Slice<ClientSummaryView> findAllSortedByNameAfter(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Finds the clients without a name following the given client in id order, where is_deleted is false.
+     * These clients come after all named clients in name order.
+     *
+     * @param id the ID of the last unnamed client of the previous slice, 0 to start with the first unnamed client
+     * @param pageable the slice size, the page number must be 0
+     * @return a slice of client summaries sorted by id
      */
-    @Query(value = "SELECT * FROM client WHERE is_deleted = false", nativeQuery = true)
-    Page<Client> findAll(Pageable pageable);
+    @Query("SELECT c.id AS id, c.name AS name, c.phoneNumber AS phoneNumber, c.imageKey AS imageKey FROM Client c " +
+            "WHERE c.isDeleted = false AND c.name IS NULL AND c.id > :id ORDER BY c.id ASC")
+    Slice<ClientSummaryView> findAllWithoutNameAfterId(@Param("id") Long id, Pageable pageable);
 }
@@ -2,10 +2,12 @@ package com.example.AstroTrack.repository;
 
 import com.example.AstroTrack.entity.Client;
 import com.example.AstroTrack.entity.Consultation;
+import com.example.AstroTrack.repository.projection.FinancialPeriodView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,55 +17,51 @@ import java.util.Optional;
 public interface ConsultationRepository extends JpaRepository<Consultation, Long> {
 
     /**
-     * Finds all consultations for a specific client, ensuring the client is not marked as deleted.
+     * Finds all consultations for a specific client that are not marked as deleted, ensuring the client is not marked
+     * as deleted either. Served by the partial index on (client_id, consultation_date, id).
      *
      * @param clientId the ID of the client whose consultations are to be found
-     * @return a list of consultations for the specified client
+     * @return a list of consultations for the specified client, in chronological order
      */
-    @Query(value = "SELECT * FROM consultation WHERE client_id = :clientId AND client_id IN (SELECT id FROM client WHERE is_deleted = false)", nativeQuery = true)
+    @Query(value = "SELECT c.* FROM consultation c JOIN client cl ON cl.id = c.client_id " +
+            "WHERE c.client_id = :clientId AND c.is_deleted = false AND cl.is_deleted = false " +
+            "ORDER BY c.consultation_date, c.id", nativeQuery = true)
     List<Consultation> findAllByClient(@Param("clientId") Long clientId);
 
     /**
-     * Finds all due amounts for a specific client, ensuring the client is not marked as deleted.
-     *
-     * @param clientId the ID of the client whose due amounts are to be found
-     * @return a list of due amounts for the specified client
-     */
-    @Query(value = "SELECT c.due_amount FROM consultation c WHERE c.client_id = :clientId AND c.client_id IN (SELECT id FROM client WHERE is_deleted = false)", nativeQuery = true)
-    List<Double> findDueAmountsByClientId(@Param("clientId") Long clientId);
-
-    /**
-     * Finds the total earnings from all consultations, ensuring clients are not marked as deleted.
-     *
-     * @return the total earnings from all consultations
-     */
-    @Query(value = "SELECT SUM(c.price) FROM consultation c WHERE c.client_id IN (SELECT id FROM client WHERE is_deleted = false)", nativeQuery = true)
-    Double findTotalEarnings();
-
-    /**
-     * Finds the total balance from all consultations, ensuring clients are not marked as deleted.
+     * Finds a consultation by its ID, ensuring it is not marked as deleted.
      *
-     * @return the total balance from all consultations
+     * @param id the ID of the consultation to find
+     * @return an Optional containing the found consultation, or empty if no consultation is found
      */
-    @Query(value = "SELECT SUM(c.due_amount) FROM consultation c WHERE c.client_id IN (SELECT id FROM client WHERE is_deleted = false)", nativeQuery = true)
-    Double findTotalBalance();
+    @Query(value = "SELECT * FROM consultation WHERE id = :id AND is_deleted = false", nativeQuery = true)
+    Optional<Consultation> findById(@Param("id") Long id);
 
     /**
-     * Finds the monthly earnings for a specific month and year from all consultations, ensuring clients are not marked as deleted.
+     * Finds a consultation by its ID, ensuring it is not marked as deleted, and locks the consultation row against
+     * concurrent changes until the current transaction ends.
      *
-     * @param month the month to find earnings for
-     * @param year the year to find earnings for
-     * @return the monthly earnings for the specified month and year
+     * @param id the ID of the consultation to find
+     * @return an Optional containing the found consultation, or empty if no consultation is found
      */
-    @Query(value = "SELECT SUM(c.price) FROM consultation c WHERE EXTRACT(MONTH FROM c.consultation_date) = :month AND EXTRACT(YEAR FROM c.consultation_date) = :year AND c.client_id IN (SELECT id FROM client WHERE is_deleted = false)", nativeQuery = true)
-    Double findMonthlyEarnings(@Param("month") int month, @Param("year") int year);
+    @Query(value = "SELECT * FROM consultation WHERE id = :id AND is_deleted = false FOR UPDATE", nativeQuery = true)
+    Optional<Consultation> findByIdForUpdate(@Param("id") Long id);
 
     /**
-     * Finds a consultation by its ID, ensuring it is not marked as deleted.
+     * Sums the active consultations of active clients in a date range per bucket, in a single pass.
+     * The range is half-open, so it is served by the partial index on the consultation date.
      *
-     * @param id the ID of the consultation to find
-     * @return an Optional containing the found consultation, or empty if no consultation is found
+     * @param field the bucket width as understood by {@code date_trunc}: day, week or month
+     * @param start the first instant of the range
+     * @param end the first instant after the range
+     * @return the buckets that contain consultations, in chronological order
      */
-    @Query(value = "SELECT * FROM consultation WHERE id = :id AND is_deleted = false", nativeQuery = true)
-    Optional<Consultation> findById(@Param("id") Long id);
+    @Query(value = "SELECT TO_CHAR(b.period_start, 'YYYY-MM-DD') AS \"periodStart\", " +
+            "COALESCE(SUM(b.price), 0) AS \"earnings\", COALESCE(SUM(b.due_amount), 0) AS \"dueAmount\" " +
+            "FROM (SELECT date_trunc(:field, c.consultation_date) AS period_start, c.price, c.due_amount " +
+            "FROM consultation c JOIN client cl ON cl.id = c.client_id " +
+            "WHERE c.consultation_date >= :start AND c.consultation_date < :end " +
+            "AND c.is_deleted = false AND cl.is_deleted = false) b " +
+            "GROUP BY b.period_start ORDER BY b.period_start", nativeQuery = true)
+    List<FinancialPeriodView> findFinancialSeries(@Param("field") String field, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 }
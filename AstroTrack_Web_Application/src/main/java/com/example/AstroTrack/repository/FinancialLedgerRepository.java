@@ -0,0 +1,137 @@
+package com.example.AstroTrack.repository;
+
+import com.example.AstroTrack.entity.FinancialLedger;
+import com.example.AstroTrack.repository.projection.LedgerPeriodView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for FinancialLedger entities.
+ * Ledger rows are only changed through atomic upserts, so concurrent writers never lose an increment.
+ */
+public interface FinancialLedgerRepository extends JpaRepository<FinancialLedger, Long> {
+
+    /**
+     * Selects the active consultations of active clients with their ledger month and their amounts rounded to cents,
+     * exactly as the incremental updates round them. Consultations without a date belong to no month and are left
+     * out of the ledger, as the incremental updates leave them out.
+     */
+    String ACTIVE_CONSULTATIONS = "SELECT CAST(EXTRACT(YEAR FROM c.consultation_date) AS integer) AS ledger_year, " +
+            "CAST(EXTRACT(MONTH FROM c.consultation_date) AS integer) AS ledger_month, " +
+            "ROUND(CAST(c.price AS numeric), 2) AS earnings, ROUND(CAST(c.due_amount AS numeric), 2) AS due_amount " +
+            "FROM consultation c JOIN client cl ON cl.id = c.client_id " +
+            "WHERE c.is_deleted = false AND cl.is_deleted = false AND c.consultation_date IS NOT NULL";
+
+    /**
+     * Sums consultations per month, plus a totals row with year and month 0.
+     */
+    String PERIOD_SUMS = "SELECT COALESCE(p.ledger_year, 0) AS \"year\", COALESCE(p.ledger_month, 0) AS \"month\", " +
+            "COALESCE(SUM(p.earnings), 0) AS \"earnings\", COALESCE(SUM(p.due_amount), 0) AS \"dueAmount\" FROM (";
+
+    /**
+     * Sums the active consultations of active clients per month, plus a totals row with year and month 0.
+     */
+    String ACTIVE_PERIODS = PERIOD_SUMS + ACTIVE_CONSULTATIONS + ") p GROUP BY GROUPING SETS ((p.ledger_year, p.ledger_month), ())";
+
+    /**
+     * Sums the active consultations of one client per month, plus a totals row with year and month 0.
+     * The client is matched with a plain equality, so the lookup is served by the partial client index.
+     */
+    String CLIENT_ACTIVE_PERIODS = PERIOD_SUMS + ACTIVE_CONSULTATIONS + " AND c.client_id = :clientId) p " +
+            "GROUP BY GROUPING SETS ((p.ledger_year, p.ledger_month), ())";
+
+    /**
+     * Finds the ledger row of a month together with the totals row.
+     *
+     * @param year the year
+     * @param month the month, from 1 to 12
+     * @return the ledger rows found, at most two
+     */
+    @Query("SELECT l FROM FinancialLedger l WHERE (l.year = :year AND l.month = :month) " +
+            "OR (l.year = " + FinancialLedger.TOTALS_PERIOD + " AND l.month = " + FinancialLedger.TOTALS_PERIOD + ")")
+    List<FinancialLedger> findPeriodWithTotals(@Param("year") int year, @Param("month") int month);
+
+    /**
+     * Finds the ledger row of a month.
+     *
+     * @param year the year
+     * @param month the month, from 1 to 12, or 0 for the totals row
+     * @return an Optional containing the ledger row, or empty if nothing was recorded for the month
+     */
+    Optional<FinancialLedger> findByYearAndMonth(int year, int month);
+
+    /**
+     * Adds amounts to the ledger row of a month, creating the row if it does not exist yet.
+     *
+     * @param year the year
+     * @param month the month, from 1 to 12, or 0 for the totals row
+     * @param earnings the earnings to add, negative to subtract
+     * @param dueAmount the due amount to add, negative to subtract
+     */
+    @Modifying
+    @Query(value = "INSERT INTO financial_ledger (ledger_year, ledger_month, earnings, due_amount) " +
+            "VALUES (:year, :month, :earnings, :dueAmount) ON CONFLICT (ledger_year, ledger_month) DO UPDATE SET " +
+            "earnings = financial_ledger.earnings + EXCLUDED.earnings, due_amount = financial_ledger.due_amount + EXCLUDED.due_amount",
+            nativeQuery = true)
+    void addToPeriod(@Param("year") int year, @Param("month") int month,
+                     @Param("earnings") BigDecimal earnings, @Param("dueAmount") BigDecimal dueAmount);
+
+    /**
+     * Subtracts the active consultations of a client from every month they fall in and from the totals.
+     *
+     * @param clientId the ID of the client, who must not be marked as deleted yet
+     */
+    @Modifying
+    @Query(value = "INSERT INTO financial_ledger (ledger_year, ledger_month, earnings, due_amount) " +
+            "SELECT a.\"year\", a.\"month\", -a.\"earnings\", -a.\"dueAmount\" FROM (" + CLIENT_ACTIVE_PERIODS + ") a " +
+            "ON CONFLICT (ledger_year, ledger_month) DO UPDATE SET " +
+            "earnings = financial_ledger.earnings + EXCLUDED.earnings, due_amount = financial_ledger.due_amount + EXCLUDED.due_amount",
+            nativeQuery = true)
+    void subtractClient(@Param("clientId") Long clientId);
+
+    /**
+     * Locks the ledger against concurrent updates until the current transaction ends.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE financial_ledger IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockLedger();
+
+    /**
+     * Deletes all ledger rows.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM financial_ledger", nativeQuery = true)
+    void deleteLedger();
+
+    /**
+     * Recomputes the ledger rows from the consultations.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO financial_ledger (ledger_year, ledger_month, earnings, due_amount) " +
+            "SELECT a.\"year\", a.\"month\", a.\"earnings\", a.\"dueAmount\" FROM (" + ACTIVE_PERIODS + ") a",
+            nativeQuery = true)
+    void insertComputedPeriods();
+
+    /**
+     * Computes the earnings and dues of every month directly from the consultations.
+     *
+     * @return the computed months, including the totals row
+     */
+    @Query(value = ACTIVE_PERIODS, nativeQuery = true)
+    List<LedgerPeriodView> computePeriods();
+
+    /**
+     * Computes the earnings and dues of every month directly from the consultations of one client.
+     *
+     * @param clientId the ID of the client
+     * @return the computed months, including the totals row
+     */
+    @Query(value = CLIENT_ACTIVE_PERIODS, nativeQuery = true)
+    List<LedgerPeriodView> computeClientPeriods(@Param("clientId") Long clientId);
+}
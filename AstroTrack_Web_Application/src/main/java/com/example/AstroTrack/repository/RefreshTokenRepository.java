@@ -1,10 +1,14 @@
 package com.example.AstroTrack.repository;
 
 import com.example.AstroTrack.entity.RefreshToken;
-import com.example.AstroTrack.entity.Users;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.Optional;
 
 /**
@@ -14,18 +18,48 @@ import java.util.Optional;
 public interface RefreshTokenRepository extends CrudRepository<RefreshToken, Integer> {
 
     /**
-     * Finds a refresh token by its token string.
+     * Finds a refresh token and its user by the digest of the token, using the unique index on the digest.
      *
-     * @param token the token string to search for
+     * @param tokenHash the digest of the token
      * @return an Optional containing the found refresh token, or empty if no token is found
      */
-    Optional<RefreshToken> findByToken(String token);
+    @Query("SELECT r FROM RefreshToken r JOIN FETCH r.userInfo WHERE r.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHash(@Param("tokenHash") String tokenHash);
 
     /**
-     * Finds a refresh token by user information.
+     * Deletes a refresh token by its identifier.
+     * Concurrent deletes of the same token are serialized by the row lock, so only one of them reports the row.
      *
-     * @param userInfo the user information to search for
-     * @return the found refresh token
+     * @param id the identifier of the token
+     * @return the number of deleted tokens, 0 if the token was already used or deleted
      */
-    RefreshToken findByUserInfo(Users userInfo);
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.id = :id")
+    int deleteTokenById(@Param("id") int id);
+
+    /**
+     * Deletes a refresh token by the digest of the token.
+     *
+     * @param tokenHash the digest of the token
+     * @return the number of deleted tokens, 0 if there is no such token
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Deletes one batch of expired refresh tokens in its own transaction, using the index on the expiry date.
+     *
+     * @param now the current time
+     * @param batchSize the maximum number of tokens to delete
+     * @return the number of deleted tokens
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM refresh_token
+            WHERE id IN (SELECT id FROM refresh_token WHERE expiry_date < :now ORDER BY expiry_date LIMIT :batchSize)
+            """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Date now, @Param("batchSize") int batchSize);
 }
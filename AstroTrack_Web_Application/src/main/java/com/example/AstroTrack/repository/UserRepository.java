@@ -2,7 +2,6 @@ package com.example.AstroTrack.repository;
 
 import com.example.AstroTrack.entity.Users;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -12,11 +11,10 @@ import org.springframework.stereotype.Repository;
 public interface UserRepository extends JpaRepository<Users, Long> {
 
     /**
-     * Finds a user by their username.
+     * Finds a user by their exact username, using the unique index on the username.
      *
      * @param username the username to search for
-     * @return the found user entity
+     * @return the found user entity, or null if there is no user with the username
      */
-    @Query(value = "select * from users where username like %?1%", nativeQuery = true)
     Users findUserByUsername(String username);
 }
@@ -0,0 +1,46 @@
+package com.example.AstroTrack.repository.projection;
+
+import java.util.Date;
+
+/**
+ * Read-only projection of one row of the client detail query.
+ * Every row carries the client columns and the client's due balance, followed by one consultation of the
+ * requested page; the consultation columns are null if the page is empty.
+ */
+public interface ClientConsultationRow extends ClientDetailView {
+
+    /**
+     * @return the sum of the due amounts of all consultations of the client
+     */
+    Double getBalance();
+
+    /**
+     * @return the unique identifier of the consultation, or null if the page is empty
+     */
+    Long getConsultationId();
+
+    /**
+     * @return the date of the consultation
+     */
+    Date getConsultationDate();
+
+    /**
+     * @return the notes taken during the consultation
+     */
+    String getNotes();
+
+    /**
+     * @return the price of the consultation
+     */
+    Double getPrice();
+
+    /**
+     * @return the due amount for the consultation
+     */
+    Double getDueAmount();
+
+    /**
+     * @return the date of the next appointment
+     */
+    Date getNextAppointment();
+}
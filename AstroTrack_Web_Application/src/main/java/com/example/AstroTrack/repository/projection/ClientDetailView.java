@@ -0,0 +1,51 @@
+package com.example.AstroTrack.repository.projection;
+
+import java.util.Date;
+
+/**
+ * Read-only projection of the client columns shown on the client detail page.
+ * It never selects the client's image or consultations.
+ */
+public interface ClientDetailView {
+
+    /**
+     * @return the unique identifier of the client
+     */
+    Long getId();
+
+    /**
+     * @return the name of the client
+     */
+    String getName();
+
+    /**
+     * @return the date and time of birth of the client
+     */
+    Date getDateAndTimeOfBirth();
+
+    /**
+     * @return the age of the client
+     */
+    int getAge();
+
+    /**
+     * @return the place of birth of the client
+     */
+    String getPlaceOfBirth();
+
+    /**
+     * @return the phone number of the client
+     */
+    String getPhoneNumber();
+
+    /**
+     * @return the content hash of the client's image, or null if the client has no image
+     */
+    String getImageKey();
+
+    /**
+     * @return the media type of the client's image, or null if the client has no image or it was stored before
+     * media types were recorded
+     */
+    String getImageContentType();
+}
@@ -0,0 +1,27 @@
+package com.example.AstroTrack.repository.projection;
+
+/**
+ * Read-only projection of the client columns shown in client listings.
+ */
+public interface ClientSummaryView {
+
+    /**
+     * @return the unique identifier of the client
+     */
+    Long getId();
+
+    /**
+     * @return the name of the client
+     */
+    String getName();
+
+    /**
+     * @return the phone number of the client
+     */
+    String getPhoneNumber();
+
+    /**
+     * @return the content hash of the client's image, or null if the client has no image
+     */
+    String getImageKey();
+}
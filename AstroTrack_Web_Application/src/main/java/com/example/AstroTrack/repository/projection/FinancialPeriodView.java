@@ -0,0 +1,22 @@
+package com.example.AstroTrack.repository.projection;
+
+/**
+ * Read-only projection of the earnings and dues of one bucket of a financial time series.
+ */
+public interface FinancialPeriodView {
+
+    /**
+     * @return the first day of the bucket in ISO format
+     */
+    String getPeriodStart();
+
+    /**
+     * @return the sum of the prices of the consultations in the bucket
+     */
+    Double getEarnings();
+
+    /**
+     * @return the sum of the due amounts of the consultations in the bucket
+     */
+    Double getDueAmount();
+}
@@ -0,0 +1,29 @@
+package com.example.AstroTrack.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only projection of the earnings and dues of one month, computed directly from the consultations.
+ */
+public interface LedgerPeriodView {
+
+    /**
+     * @return the year, or 0 for the totals over all months
+     */
+    Integer getYear();
+
+    /**
+     * @return the month, or 0 for the totals over all months
+     */
+    Integer getMonth();
+
+    /**
+     * @return the sum of the prices of the consultations
+     */
+    BigDecimal getEarnings();
+
+    /**
+     * @return the sum of the due amounts of the consultations
+     */
+    BigDecimal getDueAmount();
+}
@@ -0,0 +1,51 @@
+package com.example.AstroTrack.service;
+
+import com.example.AstroTrack.dto.ClientSearchHitDto;
+
+import java.util.List;
+
+/**
+ * Service interface for searching clients by name without querying the database.
+ */
+public interface ClientSearchService {
+
+    /**
+     * Adds a client to the search index or updates its indexed name.
+     *
+     * @param id the client ID
+     * @param name the name of the client
+     */
+    public void index(Long id, String name);
+
+    /**
+     * Removes a client from the search index.
+     *
+     * @param id the client ID
+     */
+    public void remove(Long id);
+
+    /**
+     * Rebuilds the search index from all clients that are not marked as deleted.
+     */
+    public void rebuild();
+
+    /**
+     * Finds a page of the clients whose name contains the query, ignoring case and accents.
+     *
+     * @param query the search query
+     * @param offset the number of best matches to skip
+     * @param limit the maximum number of matches to return
+     * @return the matching clients, best matches first
+     */
+    public List<ClientSearchHitDto> search(String query, int offset, int limit);
+
+    /**
+     * Finds the clients whose name contains the query and that rank after the given hit, ignoring case and accents.
+     *
+     * @param query the search query
+     * @param after the last hit of the previous slice, or null for the first slice
+     * @param limit the maximum number of matches to return
+     * @return the matching clients, best matches first
+     */
+    public List<ClientSearchHitDto> searchAfter(String query, ClientSearchHitDto after, int limit);
+}
@@ -0,0 +1,40 @@
+package com.example.AstroTrack.service;
+
+import com.example.AstroTrack.dto.ClientSuggestionDto;
+
+import java.util.List;
+
+/**
+ * Service interface for suggesting client names while typing, answered entirely from memory.
+ */
+public interface ClientSuggestService {
+
+    /**
+     * Adds a client to the suggestions or updates its name.
+     *
+     * @param id the client ID
+     * @param name the name of the client
+     */
+    public void index(Long id, String name);
+
+    /**
+     * Removes a client from the suggestions.
+     *
+     * @param id the client ID
+     */
+    public void remove(Long id);
+
+    /**
+     * Rebuilds the suggestions from all clients that are not marked as deleted.
+     */
+    public void rebuild();
+
+    /**
+     * Suggests clients whose name, or a word of it, starts with the given prefix, ignoring case and accents.
+     *
+     * @param prefix the typed prefix
+     * @param limit the maximum number of suggestions
+     * @return the suggested clients in alphabetical order of the matching name part
+     */
+    public List<ClientSuggestionDto> suggest(String prefix, int limit);
+}
@@ -2,6 +2,8 @@ package com.example.AstroTrack.service;
 
 import com.example.AstroTrack.dto.ConsultationDto;
 import com.example.AstroTrack.dto.FinancialReportDto;
+import com.example.AstroTrack.dto.FinancialSeriesDto;
+import com.example.AstroTrack.dto.ReportGranularity;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -59,4 +61,14 @@ public interface ConsultationService {
          * @return the financial report data transfer object
          */
         public FinancialReportDto getFinancialReport(LocalDate date);
+
+        /**
+         * Retrieves the earnings and dues of a date range, bucketed by the given granularity.
+         *
+         * @param from the first day of the range
+         * @param to the last day of the range
+         * @param granularity the width of the buckets
+         * @return the financial series data transfer object
+         */
+        public FinancialSeriesDto getFinancialSeries(LocalDate from, LocalDate to, ReportGranularity granularity);
 }
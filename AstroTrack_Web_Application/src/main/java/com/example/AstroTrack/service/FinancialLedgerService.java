@@ -0,0 +1,69 @@
+package com.example.AstroTrack.service;
+
+import com.example.AstroTrack.dto.FinancialLedgerVerificationDto;
+import com.example.AstroTrack.dto.FinancialReportDto;
+
+import java.util.Date;
+
+/**
+ * Service interface for the pre-aggregated ledger of earnings and dues per month.
+ * Write operations must run inside the transaction that changes the consultations they describe.
+ */
+public interface FinancialLedgerService {
+
+    /**
+     * Adds a consultation to the ledger.
+     *
+     * @param consultationDate the date of the consultation
+     * @param price the price of the consultation
+     * @param dueAmount the due amount for the consultation
+     */
+    public void recordConsultation(Date consultationDate, Double price, Double dueAmount);
+
+    /**
+     * Removes a previously recorded consultation from the ledger.
+     *
+     * @param consultationDate the recorded date of the consultation
+     * @param price the recorded price of the consultation
+     * @param dueAmount the recorded due amount for the consultation
+     */
+    public void reverseConsultation(Date consultationDate, Double price, Double dueAmount);
+
+    /**
+     * Removes all consultations of a client from the ledger.
+     * Must be called before the client is marked as deleted.
+     *
+     * @param clientId the client ID
+     */
+    public void removeClient(Long clientId);
+
+    /**
+     * Reads the financial report of a month from the ledger.
+     *
+     * @param year the year
+     * @param month the month, from 1 to 12
+     * @return the financial report data transfer object
+     */
+    public FinancialReportDto getReport(int year, int month);
+
+    /**
+     * Checks if the ledger has been built.
+     *
+     * @return true if the ledger holds its totals row, false otherwise
+     */
+    public boolean isBuilt();
+
+    /**
+     * Recomputes the ledger from the consultations and verifies the result.
+     *
+     * @return the verification result
+     */
+    public FinancialLedgerVerificationDto rebuild();
+
+    /**
+     * Compares the ledger with the amounts computed directly from the consultations.
+     *
+     * @return the verification result
+     */
+    public FinancialLedgerVerificationDto verify();
+}
@@ -0,0 +1,93 @@
+package com.example.AstroTrack.service;
+
+import com.example.AstroTrack.exception.ImageNotFoundException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Service interface for storing client images outside of the database.
+ * Images are addressed by the hex encoded SHA-256 hash of their content.
+ */
+public interface ImageStorageService {
+
+    /**
+     * Stores the given image content, reusing an existing entry with the same content.
+     *
+     * @param content the image content
+     * @return the content hash under which the image is stored
+     * @throws IOException if an I/O error occurs
+     */
+    public String store(InputStream content) throws IOException;
+
+    /**
+     * Stores a variant derived from an already stored image, such as a thumbnail.
+     * Variants share the immutability of the image they are derived from.
+     *
+     * @param key the content hash of the original image
+     * @param variant the name of the variant
+     * @param content the variant content
+     * @return the key under which the variant is stored
+     * @throws IOException if an I/O error occurs
+     */
+    public String storeVariant(String key, String variant, InputStream content) throws IOException;
+
+    /**
+     * Returns the key under which a variant of an image is stored.
+     *
+     * @param key the content hash of the original image
+     * @param variant the name of the variant
+     * @return the key of the variant
+     */
+    public String variantKey(String key, String variant);
+
+    /**
+     * Checks if an image is stored under the given key.
+     *
+     * @param key the content hash of the image
+     * @return true if the image exists, false otherwise
+     */
+    public boolean exists(String key);
+
+    /**
+     * Returns the size of a stored image.
+     *
+     * @param key the content hash of the image
+     * @return the size of the image in bytes
+     * @throws ImageNotFoundException if no image is stored under the key
+     * @throws IOException if an I/O error occurs
+     */
+    public long size(String key) throws IOException;
+
+    /**
+     * Opens a stored image for reading.
+     *
+     * @param key the content hash of the image
+     * @return an input stream over the image content
+     * @throws ImageNotFoundException if no image is stored under the key
+     * @throws IOException if an I/O error occurs
+     */
+    public InputStream open(String key) throws IOException;
+
+    /**
+     * Reads a stored image fully into memory.
+     *
+     * @param key the content hash of the image
+     * @return the image content
+     * @throws ImageNotFoundException if no image is stored under the key
+     * @throws IOException if an I/O error occurs
+     */
+    public byte[] read(String key) throws IOException;
+
+    /**
+     * Transfers a stored image to the given channel without buffering it on the heap.
+     *
+     * @param key the content hash of the image
+     * @param target the channel to write the image to
+     * @return the number of bytes transferred
+     * @throws ImageNotFoundException if no image is stored under the key
+     * @throws IOException if an I/O error occurs
+     */
+    public long transferTo(String key, WritableByteChannel target) throws IOException;
+}
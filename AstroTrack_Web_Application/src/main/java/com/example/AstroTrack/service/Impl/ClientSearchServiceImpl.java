@@ -0,0 +1,418 @@
+package com.example.AstroTrack.service.Impl;
+
+import com.example.AstroTrack.dto.ClientSearchHitDto;
+import com.example.AstroTrack.dto.InvalidationEventDto;
+import com.example.AstroTrack.repository.ClientRepository;
+import com.example.AstroTrack.repository.projection.ClientSummaryView;
+import com.example.AstroTrack.service.ClientSearchService;
+import com.example.AstroTrack.service.InvalidationBusService;
+import com.example.AstroTrack.utils.SearchUtil;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory implementation of the ClientSearchService interface.
+ * Client names are indexed by their trigrams; a query is answered by intersecting the posting lists of its
+ * trigrams, smallest first, and verifying the remaining candidates. Queries shorter than a trigram are
+ * answered by scanning the indexed names.
+ */
+@Service
+public class ClientSearchServiceImpl implements ClientSearchService {
+
+    private static final int GRAM_LENGTH = 3;
+
+    @Autowired
+    ClientRepository clientRepository;
+
+    @Autowired
+    InvalidationBusService invalidationBusService;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Long, String> names = new HashMap<>();
+
+    private Map<String, PostingList> postings = new HashMap<>();
+
+    private List<Runnable> pendingChanges;
+
+    /**
+     * Builds the search index before the application starts serving requests.
+     * Client changes published by any instance are applied from then on.
+     */
+    @PostConstruct
+    public void init() {
+        invalidationBusService.subscribe(this::onInvalidation);
+        rebuild();
+    }
+
+    /**
+     * Adds a client to the search index or updates its indexed name.
+     *
+     * @param id the client ID
+     * @param name the name of the client
+     */
+    public void index(Long id, String name) {
+        String normalized = SearchUtil.normalize(name);
+        lock.writeLock().lock();
+        try {
+            applyIndex(id, normalized);
+            if (pendingChanges != null) {
+                pendingChanges.add(() -> applyIndex(id, normalized));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a client from the search index.
+     *
+     * @param id the client ID
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            applyRemove(id);
+            if (pendingChanges != null) {
+                pendingChanges.add(() -> applyRemove(id));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the search index from all clients that are not marked as deleted.
+     * The new index is built aside and swapped in, so searches keep being answered meanwhile. Changes applied while
+     * the clients are read are recorded and replayed on the new index, so none of them is lost by the swap.
+     */
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Map<Long, String> rebuiltNames = new HashMap<>();
+        Map<String, PostingList> rebuiltPostings = new HashMap<>();
+        try {
+            for (ClientSummaryView client : clientRepository.findAllActiveSummaries()) {
+                String normalized = SearchUtil.normalize(client.getName());
+                rebuiltNames.put(client.getId(), normalized);
+                addPostings(rebuiltPostings, client.getId(), normalized);
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            names = rebuiltNames;
+            postings = rebuiltPostings;
+            pendingChanges.forEach(Runnable::run);
+            pendingChanges = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds a page of the clients whose name contains the query, ignoring case and accents.
+     *
+     * @param query the search query
+     * @param offset the number of best matches to skip
+     * @param limit the maximum number of matches to return
+     * @return the matching clients, best matches first
+     */
+    public List<ClientSearchHitDto> search(String query, int offset, int limit) {
+        List<ClientSearchHitDto> hits = top(query, null, offset + limit);
+        return hits.size() > offset ? hits.subList(offset, hits.size()) : List.of();
+    }
+
+    /**
+     * Finds the clients whose name contains the query and that rank after the given hit, ignoring case and accents.
+     *
+     * @param query the search query
+     * @param after the last hit of the previous slice, or null for the first slice
+     * @param limit the maximum number of matches to return
+     * @return the matching clients, best matches first
+     */
+    public List<ClientSearchHitDto> searchAfter(String query, ClientSearchHitDto after, int limit) {
+        return top(query, after, limit);
+    }
+
+    /**
+     * Applies a client change broadcast by any instance, including this one, to the search index.
+     *
+     * @param event the invalidation
+     */
+    private void onInvalidation(InvalidationEventDto event) {
+        if (event.type() == InvalidationEventDto.Type.CLIENT_CHANGED) {
+            index(event.clientId(), event.name());
+        } else if (event.type() == InvalidationEventDto.Type.CLIENT_REMOVED) {
+            remove(event.clientId());
+        }
+    }
+
+    /**
+     * Collects the best matches of a query that rank after the given hit.
+     * Only the requested number of hits is kept in a bounded heap, so broad queries are not fully sorted.
+     *
+     * @param query the search query
+     * @param after the hit the matches must rank after, or null
+     * @param count the maximum number of matches to return
+     * @return the matching clients, best matches first
+     */
+    private List<ClientSearchHitDto> top(String query, ClientSearchHitDto after, int count) {
+        String normalized = SearchUtil.normalize(query);
+        if (normalized.isEmpty() || count <= 0) {
+            return List.of();
+        }
+        PriorityQueue<ClientSearchHitDto> best = new PriorityQueue<>(Math.min(count, 1024) + 1, ClientSearchHitDto.RANK_ORDER.reversed());
+        lock.readLock().lock();
+        try {
+            if (normalized.length() < GRAM_LENGTH) {
+                for (Map.Entry<Long, String> entry : names.entrySet()) {
+                    offer(best, count, after, entry.getKey(), entry.getValue(), normalized);
+                }
+            } else {
+                List<PostingList> lists = new ArrayList<>();
+                for (String gram : grams(normalized)) {
+                    PostingList list = postings.get(gram);
+                    if (list == null) {
+                        return List.of();
+                    }
+                    lists.add(list);
+                }
+                lists.sort(Comparator.comparingInt(PostingList::size));
+                PostingList smallest = lists.get(0);
+                for (int i = 0; i < smallest.size(); i++) {
+                    long id = smallest.get(i);
+                    if (containedInAll(lists, id)) {
+                        offer(best, count, after, id, names.get(id), normalized);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<ClientSearchHitDto> hits = new ArrayList<>(best);
+        hits.sort(ClientSearchHitDto.RANK_ORDER);
+        return hits;
+    }
+
+    /**
+     * Offers a candidate to the heap of best matches if it matches the query and ranks after the given hit.
+     * Candidates are compared in place, so a hit is only built for the ones that are kept.
+     *
+     * @param best the heap of best matches, worst match on top
+     * @param count the maximum size of the heap
+     * @param after the hit the matches must rank after, or null
+     * @param id the client ID of the candidate
+     * @param name the normalized name of the candidate
+     * @param query the normalized query
+     */
+    private static void offer(PriorityQueue<ClientSearchHitDto> best, int count, ClientSearchHitDto after,
+                              Long id, String name, String query) {
+        int rank = rank(name, query);
+        if (rank < 0 || after != null && compare(rank, name, id, after) <= 0) {
+            return;
+        }
+        if (best.size() < count) {
+            best.add(new ClientSearchHitDto(id, name, rank));
+        } else if (compare(rank, name, id, best.peek()) < 0) {
+            best.poll();
+            best.add(new ClientSearchHitDto(id, name, rank));
+        }
+    }
+
+    /**
+     * Compares a candidate with a hit in {@link ClientSearchHitDto#RANK_ORDER}.
+     *
+     * @param rank the rank of the candidate
+     * @param name the normalized name of the candidate
+     * @param id the client ID of the candidate
+     * @param hit the hit to compare with
+     * @return a negative number, zero or a positive number if the candidate ranks before, with or after the hit
+     */
+    private static int compare(int rank, String name, long id, ClientSearchHitDto hit) {
+        int order = Integer.compare(rank, hit.getRank());
+        if (order == 0) {
+            order = name.compareTo(hit.getName());
+        }
+        return order != 0 ? order : Long.compare(id, hit.getId());
+    }
+
+    /**
+     * Ranks how the query matches a name.
+     *
+     * @param name the normalized name
+     * @param query the normalized query
+     * @return 0 if the name starts with the query, 1 if a word of the name does, 2 for any other match, -1 if it does not match
+     */
+    private static int rank(String name, String query) {
+        int index = name.indexOf(query);
+        if (index < 0) {
+            return -1;
+        }
+        if (index == 0) {
+            return 0;
+        }
+        while (index > 0) {
+            if (name.charAt(index - 1) == ' ') {
+                return 1;
+            }
+            index = name.indexOf(query, index + 1);
+        }
+        return 2;
+    }
+
+    /**
+     * Checks if a client ID is contained in all posting lists but the first.
+     *
+     * @param lists the posting lists, the first of which the ID was taken from
+     * @param id the client ID
+     * @return true if every list contains the ID
+     */
+    private static boolean containedInAll(List<PostingList> lists, long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds a client to the live index or updates its indexed name. Must be called with the write lock held.
+     *
+     * @param id the client ID
+     * @param normalized the normalized name
+     */
+    private void applyIndex(Long id, String normalized) {
+        String previous = names.put(id, normalized);
+        if (previous != null) {
+            removePostings(id, previous);
+        }
+        addPostings(postings, id, normalized);
+    }
+
+    /**
+     * Removes a client from the live index. Must be called with the write lock held.
+     *
+     * @param id the client ID
+     */
+    private void applyRemove(Long id) {
+        String previous = names.remove(id);
+        if (previous != null) {
+            removePostings(id, previous);
+        }
+    }
+
+    /**
+     * Adds a client to the posting lists of all trigrams of its name.
+     *
+     * @param target the posting lists to add to
+     * @param id the client ID
+     * @param normalized the normalized name
+     */
+    private static void addPostings(Map<String, PostingList> target, Long id, String normalized) {
+        for (String gram : grams(normalized)) {
+            target.computeIfAbsent(gram, key -> new PostingList()).add(id);
+        }
+    }
+
+    /**
+     * Removes a client from the posting lists of all trigrams of its previous name.
+     *
+     * @param id the client ID
+     * @param normalized the previous normalized name
+     */
+    private void removePostings(Long id, String normalized) {
+        for (String gram : grams(normalized)) {
+            PostingList list = postings.get(gram);
+            if (list != null) {
+                list.remove(id);
+                if (list.size() == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the distinct trigrams of a normalized text.
+     *
+     * @param normalized the normalized text
+     * @return the distinct trigrams in order of first occurrence
+     */
+    private static Set<String> grams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * Sorted set of client IDs backed by a primitive array.
+     */
+    private static final class PostingList {
+
+        private long[] ids = new long[4];
+
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        long get(int index) {
+            return ids[index];
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+    }
+}
@@ -1,26 +1,48 @@
 package com.example.AstroTrack.service.Impl;
 
 import com.example.AstroTrack.dto.ClientDto;
+import com.example.AstroTrack.dto.ClientImageDto;
+import com.example.AstroTrack.dto.ClientSearchHitDto;
+import com.example.AstroTrack.dto.ClientSliceDto;
+import com.example.AstroTrack.dto.ImageSize;
+import com.example.AstroTrack.dto.InvalidationEventDto;
 import com.example.AstroTrack.dto.ViewAllClientsDto;
 import com.example.AstroTrack.entity.Client;
-import com.example.AstroTrack.entity.Consultation;
 import com.example.AstroTrack.exception.ClientNotFoundException;
+import com.example.AstroTrack.exception.ImageNotFoundException;
 import com.example.AstroTrack.mapper.ClientMapper;
 import com.example.AstroTrack.repository.ClientRepository;
 import com.example.AstroTrack.repository.ClientRepositoryPagination;
-import com.example.AstroTrack.repository.ConsultationPaginationRepository;
-import com.example.AstroTrack.repository.ConsultationRepository;
+import com.example.AstroTrack.repository.projection.ClientConsultationRow;
+import com.example.AstroTrack.repository.projection.ClientDetailView;
+import com.example.AstroTrack.repository.projection.ClientSummaryView;
+import com.example.AstroTrack.service.ClientSearchService;
 import com.example.AstroTrack.service.ClientService;
+import com.example.AstroTrack.service.FinancialLedgerService;
+import com.example.AstroTrack.service.InvalidationBusService;
+import com.example.AstroTrack.service.ImageStorageService;
+import com.example.AstroTrack.service.ThumbnailService;
+import com.example.AstroTrack.utils.CursorUtil;
+import com.example.AstroTrack.utils.SingleFlight;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -29,6 +51,10 @@ import java.util.stream.Collectors;
 @Service
 public class ClientServiceImpl implements ClientService {
 
+    private static final int CLIENT_PAGE_SIZE = 10;
+
+    private static final int CONSULTATION_PAGE_SIZE = 5;
+
     @Autowired
     ClientMapper clientMapper;
 
@@ -36,13 +62,24 @@ public class ClientServiceImpl implements ClientService {
     ClientRepository clientRepository;
 
     @Autowired
-    ConsultationRepository consultationRepository;
+    ClientRepositoryPagination clientRepositoryPagination;
 
     @Autowired
-    ConsultationPaginationRepository consultationPaginationRepository;
+    ImageStorageService imageStorageService;
 
     @Autowired
-    ClientRepositoryPagination clientRepositoryPagination;
+    ThumbnailService thumbnailService;
+
+    @Autowired
+    ClientSearchService clientSearchService;
+
+    @Autowired
+    FinancialLedgerService financialLedgerService;
+
+    @Autowired
+    InvalidationBusService invalidationBusService;
+
+    private final SingleFlight<DetailKey, List<ClientConsultationRow>> detailFlights = new SingleFlight<>("clientDetail");
 
     /**
      * Creates a new client.
@@ -52,8 +89,13 @@ public class ClientServiceImpl implements ClientService {
      */
     public ClientDto createClient(ClientDto clientDto) {
         Client client = clientMapper.mapToClient(clientDto);
+        if (clientDto.getImage() != null) {
+            storeImage(client, new ByteArrayInputStream(clientDto.getImage()));
+        }
         client.setDeleted(false);
-        return clientMapper.mapToClientDto(clientRepository.save(client), 0.00, null);
+        Client savedClient = clientRepository.save(client);
+        broadcast(InvalidationEventDto.clientChanged(savedClient.getId(), savedClient.getName()));
+        return clientMapper.mapToClientDto(savedClient, 0.00, null);
     }
 
     /**
@@ -66,9 +108,13 @@ public class ClientServiceImpl implements ClientService {
      */
     public ClientDto createClient(ClientDto clientDto, MultipartFile image) throws IOException {
         Client client = clientMapper.mapToClient(clientDto);
-        client.setImage(image.getBytes());
+        try (InputStream content = image.getInputStream()) {
+            storeImage(client, content);
+        }
         client.setDeleted(false);
-        return clientMapper.mapToClientDto(clientRepository.save(client), 0.00, null);
+        Client savedClient = clientRepository.save(client);
+        broadcast(InvalidationEventDto.clientChanged(savedClient.getId(), savedClient.getName()));
+        return clientMapper.mapToClientDto(savedClient, 0.00, null);
     }
 
     /**
@@ -77,7 +123,7 @@ public class ClientServiceImpl implements ClientService {
      * @return a list of all clients
      */
     public List<ClientDto> getAllClients() {
-        return clientRepository.findAll().stream().map(client -> clientMapper.mapToClientDto(client)).collect(Collectors.toList());
+        return clientRepository.findAllDetails().stream().map(client -> clientMapper.mapToClientDto(client)).collect(Collectors.toList());
     }
 
     /**
@@ -89,36 +135,105 @@ public class ClientServiceImpl implements ClientService {
      */
     @Transactional
     public List<ViewAllClientsDto> viewAllClients(int pageNo, String sort) {
-        PageRequest pageRequest = PageRequest.of(pageNo, 10);
-        Page<Client> clientPage = clientRepositoryPagination.findAll(pageRequest);
+        PageRequest pageRequest = PageRequest.of(pageNo, CLIENT_PAGE_SIZE);
+        Slice<ClientSummaryView> clientSlice = sort.equalsIgnoreCase("name")
+                ? clientRepositoryPagination.findAllSortedByName(pageRequest)
+                : clientRepositoryPagination.findAllSummaries(pageRequest);
+        return mapToViewAllClientsDtos(clientSlice.getContent());
+    }
+
+    /**
+     * Retrieves the slice of all clients following the given cursor, optionally sorted by name.
+     * Each slice seeks directly to its first row, so deep slices are as fast as the first one. In name order, clients
+     * without a name follow all named clients, ordered by id.
+     *
+     * @param cursor the cursor returned with the previous slice, empty for the first slice
+     * @param sort the sort criteria
+     * @return the slice of clients and the cursor of the next slice
+     */
+    @Transactional
+    public ClientSliceDto viewAllClients(String cursor, String sort) {
         if (sort.equalsIgnoreCase("name")) {
-            clientPage = clientRepositoryPagination.findAllSortedByName(pageRequest);
+            String[] after = cursor.isEmpty() ? new String[]{"", "0"} : CursorUtil.decode(cursor, 2);
+            return viewAllClientsByName(after[0], parseCursorId(after[1]));
         }
-        List<ViewAllClientsDto> clientsDto = clientPage.getContent().stream()
-                .map(client -> clientMapper.mapToViewAllClientsDto(client))
-                .collect(Collectors.toList());
-        return clientsDto;
+        String[] after = cursor.isEmpty() ? new String[]{"0"} : CursorUtil.decode(cursor, 1);
+        Slice<ClientSummaryView> clientSlice = clientRepositoryPagination.findAllAfterId(parseCursorId(after[0]), PageRequest.of(0, CLIENT_PAGE_SIZE));
+        return toClientSliceDto(clientSlice.getContent(), clientSlice.hasNext(), false);
+    }
+
+    /**
+     * Retrieves the slice of clients in (name, id) order following the given client.
+     * Named clients are read first; once they are exhausted the slice is filled with the clients without a name.
+     *
+     * @param name the name of the last client of the previous slice, null if that client has no name
+     * @param id the ID of the last client of the previous slice
+     * @return the slice of clients and the cursor of the next slice
+     */
+    private ClientSliceDto viewAllClientsByName(String name, Long id) {
+        List<ClientSummaryView> clients = new ArrayList<>(CLIENT_PAGE_SIZE);
+        boolean hasNext = false;
+        Long afterUnnamedId = id;
+        if (name != null) {
+            Slice<ClientSummaryView> named = clientRepositoryPagination.findAllSortedByNameAfter(name, id, PageRequest.of(0, CLIENT_PAGE_SIZE));
+            clients.addAll(named.getContent());
+            hasNext = named.hasNext();
+            afterUnnamedId = 0L;
+        }
+        if (!hasNext) {
+            int remaining = CLIENT_PAGE_SIZE - clients.size();
+            Slice<ClientSummaryView> unnamed = clientRepositoryPagination.findAllWithoutNameAfterId(afterUnnamedId, PageRequest.of(0, Math.max(remaining, 1)));
+            if (remaining > 0) {
+                clients.addAll(unnamed.getContent());
+                hasNext = unnamed.hasNext();
+            } else {
+                hasNext = unnamed.hasContent();
+            }
+        }
+        return toClientSliceDto(clients, hasNext, true);
     }
 
     /**
      * Retrieves a paginated list of clients filtered by name.
+     * Matches are found in the client search index, best matches first, and only the requested page is loaded.
      *
      * @param pageNo the page number
      * @param filter the name filter
      * @return a list of view all clients DTOs
      */
-    @Transactional
     public List<ViewAllClientsDto> filterClients(int pageNo, String filter) {
-        PageRequest pageRequest = PageRequest.of(pageNo, 10);
-        Page<Client> clientPage = clientRepositoryPagination.findByName(filter, pageRequest);
-        List<ViewAllClientsDto> clientsDto = clientPage.getContent().stream()
-                .map(client -> clientMapper.mapToViewAllClientsDto(client))
-                .collect(Collectors.toList());
-        return clientsDto;
+        int offset = (int) Math.min((long) pageNo * CLIENT_PAGE_SIZE, Integer.MAX_VALUE - CLIENT_PAGE_SIZE);
+        return loadSearchHits(clientSearchService.search(filter, offset, CLIENT_PAGE_SIZE));
+    }
+
+    /**
+     * Retrieves the slice of clients filtered by name following the given cursor.
+     * The cursor holds the position of the last hit in the ranked search results.
+     *
+     * @param cursor the cursor returned with the previous slice, empty for the first slice
+     * @param filter the name filter
+     * @return the slice of clients and the cursor of the next slice
+     */
+    public ClientSliceDto filterClients(String cursor, String filter) {
+        ClientSearchHitDto after = null;
+        if (!cursor.isEmpty()) {
+            String[] parts = CursorUtil.decode(cursor, 3);
+            after = new ClientSearchHitDto(parseCursorId(parts[2]), parts[1], parseCursorRank(parts[0]));
+        }
+        List<ClientSearchHitDto> hits = clientSearchService.searchAfter(filter, after, CLIENT_PAGE_SIZE + 1);
+        String nextCursor = null;
+        if (hits.size() > CLIENT_PAGE_SIZE) {
+            hits = hits.subList(0, CLIENT_PAGE_SIZE);
+            ClientSearchHitDto last = hits.get(CLIENT_PAGE_SIZE - 1);
+            nextCursor = CursorUtil.encode(last.getRank(), last.getName(), last.getId());
+        }
+        return new ClientSliceDto(loadSearchHits(hits), nextCursor);
     }
 
     /**
      * Updates a client's information.
+     * The response carries the client's balance and first page of consultations, read with the bounded detail query
+     * after the update, never shared with a concurrent read.
      *
      * @param id the client ID
      * @param clientDto the client data transfer object
@@ -136,11 +251,15 @@ public class ClientServiceImpl implements ClientService {
         } else {
             throw new ClientNotFoundException("Client with id " + id + " not found!");
         }
-        return clientMapper.mapToClientDto(clientRepository.save(existingClient.get()), 0.00, existingClient.get().getConsultations());
+        Client savedClient = clientRepository.save(existingClient.get());
+        broadcast(InvalidationEventDto.clientChanged(savedClient.getId(), savedClient.getName()));
+        return mapClientDetail(savedClient.getId(), findClientDetailRows(savedClient.getId(), 0), false);
     }
 
     /**
      * Updates a client's information with an image.
+     * The response carries the client's balance and first page of consultations, read with the bounded detail query
+     * after the update, never shared with a concurrent read.
      *
      * @param id the client ID
      * @param clientDto the client data transfer object
@@ -157,26 +276,34 @@ public class ClientServiceImpl implements ClientService {
             existingClient.get().setDateAndTimeOfBirth(clientDto.getDateAndTimeOfBirth());
             existingClient.get().setPlaceOfBirth(clientDto.getPlaceOfBirth());
             existingClient.get().setPhoneNumber(clientDto.getPhoneNumber());
-            existingClient.get().setImage(image.getBytes());
+            try (InputStream content = image.getInputStream()) {
+                storeImage(existingClient.get(), content);
+            }
         } else {
             throw new ClientNotFoundException("Client with id " + id + " not found!");
         }
-        return clientMapper.mapToClientDto(clientRepository.save(existingClient.get()), 0.00, existingClient.get().getConsultations());
+        Client savedClient = clientRepository.save(existingClient.get());
+        broadcast(InvalidationEventDto.clientChanged(savedClient.getId(), savedClient.getName()));
+        return mapClientDetail(savedClient.getId(), findClientDetailRows(savedClient.getId(), 0), false);
     }
 
     /**
      * Deletes a client by setting the isDeleted flag to true.
+     * The client's consultations are removed from the financial ledger in the same transaction.
      *
      * @param id the client ID
      */
+    @Transactional
     public void deleteClient(Long id) {
-        Optional<Client> client = clientRepository.findById(id);
+        Optional<Client> client = clientRepository.findByIdForUpdate(id);
         if (client.isEmpty()) {
             throw new ClientNotFoundException("Client with id " + id + " not found!");
         } else {
+            financialLedgerService.removeClient(id);
             client.get().setDeleted(true);
         }
         clientRepository.save(client.get());
+        broadcast(InvalidationEventDto.clientRemoved(id));
     }
 
     /**
@@ -187,14 +314,213 @@ public class ClientServiceImpl implements ClientService {
      * @return the client data transfer object
      */
     public ClientDto getClientById(Long id, int page) {
-        Client client = clientRepository.findById(id)
-                .orElseThrow(() -> new ClientNotFoundException("Client with id " + id + " not found!"));
-        PageRequest pageRequest = PageRequest.of(page, 5);
-        Page<Consultation> consultationPage = consultationPaginationRepository.findByClientId(id, pageRequest);
-        List<Consultation> consultations = consultationPage.getContent();
-        Double dueAmount = consultationRepository.findDueAmountsByClientId(id).stream()
-                .mapToDouble(Double::doubleValue).sum();
-        ClientDto clientDto = clientMapper.mapToClientDto(client, dueAmount, consultations);
+        return getClientById(id, page, false);
+    }
+
+    /**
+     * Retrieves a client by ID with paginated consultations, optionally including the client's image.
+     * The client, their balance and the page of consultations are read with a single statement, shared by concurrent
+     * requests for the same page.
+     *
+     * @param id the client ID
+     * @param page the page number
+     * @param includeImage true to load the client's image into the returned DTO
+     * @return the client data transfer object
+     */
+    public ClientDto getClientById(Long id, int page, boolean includeImage) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page index must not be less than zero");
+        }
+        List<ClientConsultationRow> rows = detailFlights.execute(new DetailKey(id, page), () -> findClientDetailRows(id, page));
+        return mapClientDetail(id, rows, includeImage);
+    }
+
+    /**
+     * Reads a client, their balance and a page of consultations with a single statement.
+     *
+     * @param id the client ID
+     * @param page the page number
+     * @return the detail rows, empty if the client does not exist or is marked as deleted
+     */
+    private List<ClientConsultationRow> findClientDetailRows(Long id, int page) {
+        return clientRepository.findDetailWithConsultationPage(id, (long) page * CONSULTATION_PAGE_SIZE, CONSULTATION_PAGE_SIZE);
+    }
+
+    /**
+     * Maps the detail rows of a client to a new data transfer object.
+     *
+     * @param id the client ID
+     * @param rows the detail rows
+     * @param includeImage true to load the client's image into the returned DTO
+     * @return the client data transfer object
+     * @throws ClientNotFoundException if there are no rows
+     */
+    private ClientDto mapClientDetail(Long id, List<ClientConsultationRow> rows, boolean includeImage) {
+        if (rows.isEmpty()) {
+            throw new ClientNotFoundException("Client with id " + id + " not found!");
+        }
+        ClientDto clientDto = clientMapper.mapToClientDto(rows);
+        if (includeImage) {
+            clientDto.setImage(readImage(rows.get(0).getImageKey()));
+        }
         return clientDto;
     }
+
+    /**
+     * Retrieves the location of a rendition of a client's image in the image store.
+     *
+     * @param id the client ID
+     * @param size the requested rendition
+     * @return the client image data transfer object
+     */
+    public ClientImageDto getClientImage(Long id, ImageSize size) {
+        ClientDetailView client = clientRepository.findDetailById(id)
+                .orElseThrow(() -> new ClientNotFoundException("Client with id " + id + " not found!"));
+        if (client.getImageKey() == null || !imageStorageService.exists(client.getImageKey())) {
+            throw new ImageNotFoundException("Image for client with id " + id + " not found!");
+        }
+        String renditionKey = thumbnailService.resolve(client.getImageKey(), size);
+        return new ClientImageDto(client.getId(), client.getName(), renditionKey, client.getImageKey(),
+                thumbnailService.contentType(client.getImageKey(), renditionKey, client.getImageContentType()));
+    }
+
+    /**
+     * Publishes a change to the client name indexes once the current transaction has committed, or right away
+     * outside of a transaction. Every instance, this one included, applies it to its indexes.
+     *
+     * @param event the change
+     */
+    private void broadcast(InvalidationEventDto event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidationBusService.publish(event);
+                }
+            });
+        } else {
+            invalidationBusService.publish(event);
+        }
+    }
+
+    /**
+     * Stores an image in the image store, generates its thumbnails and assigns it to a client together with its
+     * media type.
+     *
+     * @param client the client the image belongs to
+     * @param content the image content
+     */
+    private void storeImage(Client client, InputStream content) {
+        try {
+            String imageKey = imageStorageService.store(content);
+            thumbnailService.generateThumbnails(imageKey);
+            client.setImageKey(imageKey);
+            client.setImageContentType(thumbnailService.detectContentType(imageKey));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads a client's image from the image store.
+     *
+     * @param imageKey the content hash of the image, may be null
+     * @return the image content, or null if the client has no stored image
+     */
+    private byte[] readImage(String imageKey) {
+        if (imageKey == null || !imageStorageService.exists(imageKey)) {
+            return null;
+        }
+        try {
+            return imageStorageService.read(imageKey);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Maps client summaries to view all clients DTOs.
+     *
+     * @param clients the client summaries
+     * @return a list of view all clients DTOs
+     */
+    private List<ViewAllClientsDto> mapToViewAllClientsDtos(List<ClientSummaryView> clients) {
+        return clients.stream()
+                .map(client -> clientMapper.mapToViewAllClientsDto(client))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Maps a slice of client summaries to a client slice DTO with the cursor of the next slice.
+     *
+     * @param content the client summaries of the slice
+     * @param hasNext true if more clients follow the slice
+     * @param sortedByName true if the slice is sorted by (name, id), false if it is sorted by id
+     * @return the client slice DTO, without a cursor if this is the last slice
+     */
+    private ClientSliceDto toClientSliceDto(List<ClientSummaryView> content, boolean hasNext, boolean sortedByName) {
+        String nextCursor = null;
+        if (hasNext && !content.isEmpty()) {
+            ClientSummaryView last = content.get(content.size() - 1);
+            nextCursor = sortedByName ? CursorUtil.encode(last.getName(), last.getId()) : CursorUtil.encode(last.getId());
+        }
+        return new ClientSliceDto(mapToViewAllClientsDtos(content), nextCursor);
+    }
+
+    /**
+     * Loads the summaries of the given search hits, keeping the order of the hits.
+     * Clients deleted since the hits were found are left out.
+     *
+     * @param hits the search hits
+     * @return a list of view all clients DTOs
+     */
+    private List<ViewAllClientsDto> loadSearchHits(List<ClientSearchHitDto> hits) {
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ClientSummaryView> clients = clientRepository.findSummariesByIdIn(
+                        hits.stream().map(ClientSearchHitDto::getId).collect(Collectors.toList()))
+                .stream().collect(Collectors.toMap(ClientSummaryView::getId, Function.identity()));
+        return hits.stream()
+                .map(hit -> clients.get(hit.getId()))
+                .filter(Objects::nonNull)
+                .map(client -> clientMapper.mapToViewAllClientsDto(client))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Parses the rank part of a search cursor.
+     *
+     * @param rank the rank part of the cursor
+     * @return the rank of the last hit of the previous slice
+     * @throws IllegalArgumentException if the rank is not a number
+     */
+    private int parseCursorRank(String rank) {
+        try {
+            return Integer.parseInt(rank);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Parses the client ID part of a cursor.
+     *
+     * @param id the ID part of the cursor
+     * @return the client ID
+     * @throws IllegalArgumentException if the ID is not a number
+     */
+    private Long parseCursorId(String id) {
+        try {
+            return Long.valueOf(id);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Key of a client detail read.
+     */
+    private record DetailKey(Long id, int page) {
+    }
 }
@@ -0,0 +1,260 @@
+package com.example.AstroTrack.service.Impl;
+
+import com.example.AstroTrack.dto.ClientSuggestionDto;
+import com.example.AstroTrack.dto.InvalidationEventDto;
+import com.example.AstroTrack.repository.ClientRepository;
+import com.example.AstroTrack.repository.projection.ClientSummaryView;
+import com.example.AstroTrack.service.ClientSuggestService;
+import com.example.AstroTrack.service.InvalidationBusService;
+import com.example.AstroTrack.utils.SearchUtil;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * In-memory implementation of the ClientSuggestService interface.
+ * The normalized name of every client and each of its word suffixes are kept in one sorted array, so a prefix
+ * lookup is a binary search followed by a short scan. Updates build a new snapshot that replaces the current one,
+ * which lets lookups run without any locking.
+ * The price is that every write copies the whole array, a few milliseconds at 100,000 clients. Client names change
+ * only when staff create, rename or delete a client, so lookups, which run on every keystroke, are favoured; a write
+ * that leaves the name unchanged is skipped.
+ */
+@Service
+public class ClientSuggestServiceImpl implements ClientSuggestService {
+
+    /**
+     * The maximum number of suggestions returned by a single lookup.
+     */
+    public static final int MAX_SUGGESTIONS = 25;
+
+    @Autowired
+    ClientRepository clientRepository;
+
+    @Autowired
+    InvalidationBusService invalidationBusService;
+
+    private volatile Snapshot snapshot = new Snapshot(new String[0], new long[0], Map.of());
+
+    /**
+     * Builds the suggestions before the application starts serving requests.
+     * Client changes published by any instance are applied from then on.
+     */
+    @PostConstruct
+    public void init() {
+        invalidationBusService.subscribe(this::onInvalidation);
+        rebuild();
+    }
+
+    /**
+     * Adds a client to the suggestions or updates its name.
+     *
+     * @param id the client ID
+     * @param name the name of the client
+     */
+    public synchronized void index(Long id, String name) {
+        Snapshot current = snapshot;
+        if (current.names().containsKey(id) && Objects.equals(current.names().get(id), name)) {
+            return;
+        }
+        Map<Long, String> names = new HashMap<>(current.names());
+        names.put(id, name);
+        List<String> added = keys(name);
+        added.sort(null);
+        snapshot = merge(current, id, added, names);
+    }
+
+    /**
+     * Removes a client from the suggestions.
+     *
+     * @param id the client ID
+     */
+    public synchronized void remove(Long id) {
+        Snapshot current = snapshot;
+        if (!current.names().containsKey(id)) {
+            return;
+        }
+        Map<Long, String> names = new HashMap<>(current.names());
+        names.remove(id);
+        snapshot = merge(current, id, List.of(), names);
+    }
+
+    /**
+     * Rebuilds the suggestions from all clients that are not marked as deleted.
+     */
+    public synchronized void rebuild() {
+        List<Entry> entries = new ArrayList<>();
+        Map<Long, String> names = new HashMap<>();
+        for (ClientSummaryView client : clientRepository.findAllActiveSummaries()) {
+            names.put(client.getId(), client.getName());
+            for (String key : keys(client.getName())) {
+                entries.add(new Entry(key, client.getId()));
+            }
+        }
+        entries.sort((left, right) -> left.compareTo(right.key(), right.id()));
+        String[] keys = new String[entries.size()];
+        long[] ids = new long[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            keys[i] = entries.get(i).key();
+            ids[i] = entries.get(i).id();
+        }
+        snapshot = new Snapshot(keys, ids, Collections.unmodifiableMap(names));
+    }
+
+    /**
+     * Suggests clients whose name, or a word of it, starts with the given prefix, ignoring case and accents.
+     *
+     * @param prefix the typed prefix
+     * @param limit the maximum number of suggestions, capped at {@value #MAX_SUGGESTIONS}
+     * @return the suggested clients in alphabetical order of the matching name part
+     */
+    public List<ClientSuggestionDto> suggest(String prefix, int limit) {
+        String normalized = SearchUtil.normalize(prefix);
+        int max = Math.min(limit, MAX_SUGGESTIONS);
+        if (normalized.isEmpty() || max <= 0) {
+            return List.of();
+        }
+        Snapshot current = snapshot;
+        Set<Long> ids = new LinkedHashSet<>();
+        for (int i = lowerBound(current.keys(), normalized); i < current.keys().length && ids.size() < max; i++) {
+            if (!current.keys()[i].startsWith(normalized)) {
+                break;
+            }
+            ids.add(current.ids()[i]);
+        }
+        List<ClientSuggestionDto> suggestions = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            suggestions.add(new ClientSuggestionDto(id, current.names().get(id)));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Applies a client change broadcast by any instance, including this one, to the suggestions.
+     *
+     * @param event the invalidation
+     */
+    private void onInvalidation(InvalidationEventDto event) {
+        if (event.type() == InvalidationEventDto.Type.CLIENT_CHANGED) {
+            index(event.clientId(), event.name());
+        } else if (event.type() == InvalidationEventDto.Type.CLIENT_REMOVED) {
+            remove(event.clientId());
+        }
+    }
+
+    /**
+     * Returns the keys a name is found under: the whole normalized name and every suffix starting at a word.
+     *
+     * @param name the name of the client
+     * @return the distinct keys of the name
+     */
+    private static List<String> keys(String name) {
+        String normalized = SearchUtil.normalize(name);
+        Set<String> keys = new LinkedHashSet<>();
+        if (!normalized.isEmpty()) {
+            keys.add(normalized);
+        }
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(normalized.substring(i + 1));
+        }
+        return new ArrayList<>(keys);
+    }
+
+    /**
+     * Builds a new snapshot from the current one, dropping all keys of a client and merging in its new keys.
+     *
+     * @param current the current snapshot
+     * @param id the client ID
+     * @param added the new keys of the client, sorted
+     * @param names the display names of the new snapshot
+     * @return the new snapshot
+     */
+    private static Snapshot merge(Snapshot current, long id, List<String> added, Map<Long, String> names) {
+        int retained = 0;
+        for (long existing : current.ids()) {
+            if (existing != id) {
+                retained++;
+            }
+        }
+        String[] keys = new String[retained + added.size()];
+        long[] ids = new long[keys.length];
+        int next = 0;
+        int addedIndex = 0;
+        for (int i = 0; i < current.keys().length; i++) {
+            if (current.ids()[i] == id) {
+                continue;
+            }
+            while (addedIndex < added.size() && compare(added.get(addedIndex), id, current.keys()[i], current.ids()[i]) < 0) {
+                keys[next] = added.get(addedIndex++);
+                ids[next++] = id;
+            }
+            keys[next] = current.keys()[i];
+            ids[next++] = current.ids()[i];
+        }
+        while (addedIndex < added.size()) {
+            keys[next] = added.get(addedIndex++);
+            ids[next++] = id;
+        }
+        return new Snapshot(keys, ids, Collections.unmodifiableMap(names));
+    }
+
+    /**
+     * Finds the position of the first key that is not less than the given prefix.
+     *
+     * @param keys the sorted keys
+     * @param prefix the prefix
+     * @return the position of the first candidate key
+     */
+    private static int lowerBound(String[] keys, String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares two entries by key and then by client ID.
+     *
+     * @param leftKey the key of the first entry
+     * @param leftId the client ID of the first entry
+     * @param rightKey the key of the second entry
+     * @param rightId the client ID of the second entry
+     * @return a negative number, zero or a positive number if the first entry sorts before, with or after the second
+     */
+    private static int compare(String leftKey, long leftId, String rightKey, long rightId) {
+        int order = leftKey.compareTo(rightKey);
+        return order != 0 ? order : Long.compare(leftId, rightId);
+    }
+
+    /**
+     * Key of a client in the sorted array, used while building a snapshot.
+     */
+    private record Entry(String key, long id) {
+
+        int compareTo(String otherKey, long otherId) {
+            return compare(key, id, otherKey, otherId);
+        }
+    }
+
+    /**
+     * Immutable state of the suggestions: sorted keys, the client ID of each key and the display names.
+     */
+    private record Snapshot(String[] keys, long[] ids, Map<Long, String> names) {
+    }
+}
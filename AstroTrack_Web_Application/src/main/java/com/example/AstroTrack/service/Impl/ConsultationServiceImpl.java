@@ -4,19 +4,30 @@ import static com.example.AstroTrack.utils.MonthUtil.*;
 import static com.example.AstroTrack.mapper.ConsultationsMapper.*;
 import com.example.AstroTrack.dto.ConsultationDto;
 import com.example.AstroTrack.dto.FinancialReportDto;
-import com.example.AstroTrack.entity.Client;
+import com.example.AstroTrack.dto.FinancialSeriesDto;
+import com.example.AstroTrack.dto.FinancialSeriesPointDto;
+import com.example.AstroTrack.dto.ReportGranularity;
 import com.example.AstroTrack.entity.Consultation;
+import com.example.AstroTrack.exception.ClientNotFoundException;
 import com.example.AstroTrack.exception.ConsultationNotFoundException;
 import com.example.AstroTrack.mapper.ConsultationsMapper;
 import com.example.AstroTrack.repository.ClientRepository;
 import com.example.AstroTrack.repository.ConsultationRepository;
+import com.example.AstroTrack.repository.projection.FinancialPeriodView;
 import com.example.AstroTrack.service.ConsultationService;
+import com.example.AstroTrack.service.FinancialLedgerService;
+import com.example.AstroTrack.utils.SingleFlight;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.Month;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -26,6 +37,11 @@ import java.util.stream.Collectors;
 @Service
 public class ConsultationServiceImpl implements ConsultationService {
 
+    /**
+     * The maximum number of buckets a financial series may have.
+     */
+    public static final int MAX_SERIES_BUCKETS = 1000;
+
     @Autowired
     ConsultationRepository consultationRepository;
 
@@ -35,33 +51,47 @@ public class ConsultationServiceImpl implements ConsultationService {
     @Autowired
     ConsultationsMapper consultationsMapper;
 
+    @Autowired
+    FinancialLedgerService financialLedgerService;
+
+    private final SingleFlight<SeriesKey, List<FinancialPeriodView>> seriesFlights = new SingleFlight<>("financialSeries");
+
     /**
      * Creates a new consultation for a specific client.
+     * The client is referenced by ID only and never loaded.
      *
      * @param consultationDto the consultation data transfer object
      * @param clientId the ID of the client
      * @return the created consultation data transfer object
      */
+    @Transactional
     public ConsultationDto createConsultation(ConsultationDto consultationDto, Long clientId) {
-        Optional<Client> existingClient = clientRepository.findById(clientId);
+        if (clientRepository.lockActiveById(clientId).isEmpty()) {
+            throw new ClientNotFoundException("Client with id " + clientId + " not found!");
+        }
         Consultation consultation = mapToConsultation(consultationDto);
-        consultation.setClient(existingClient.get());
+        consultation.setClient(clientRepository.getReferenceById(clientId));
         consultation.setDeleted(false);
-        return consultationsMapper.mapToConsultationDto(Optional.of(consultationRepository.save(consultation)));
+        Consultation savedConsultation = consultationRepository.save(consultation);
+        financialLedgerService.recordConsultation(savedConsultation.getConsultationDate(), savedConsultation.getPrice(), savedConsultation.getDueAmount());
+        return consultationsMapper.mapToConsultationDto(Optional.of(savedConsultation));
     }
 
     /**
      * Retrieves all consultations for a specific client.
+     * The client is only looked up when no consultations are found, to tell an unknown client from one without consultations.
      *
      * @param id the client ID
      * @return a list of consultation data transfer objects
      */
     public List<ConsultationDto> getAllConsultations(Long id) {
-        Optional<Client> existingClient = clientRepository.findById(id);
-        List<ConsultationDto> consultationDtoList = consultationRepository.findAllByClient(existingClient.get().getId()).stream()
+        List<Consultation> consultations = consultationRepository.findAllByClient(id);
+        if (consultations.isEmpty() && !clientRepository.existsActiveById(id)) {
+            throw new ClientNotFoundException("Client with id " + id + " not found!");
+        }
+        return consultations.stream()
                 .map(consultation -> mapToConsultationDto(Optional.ofNullable(consultation)))
                 .collect(Collectors.toList());
-        return consultationDtoList;
     }
 
     /**
@@ -83,8 +113,16 @@ public class ConsultationServiceImpl implements ConsultationService {
      * @param consultationDto the consultation data transfer object
      * @return the updated consultation data transfer object
      */
+    @Transactional
     public ConsultationDto updateConsultation(Long id, ConsultationDto consultationDto) {
-        Optional<Consultation> existingConsultation = consultationRepository.findById(id);
+        Optional<Consultation> existingConsultation = Optional.ofNullable(consultationRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ConsultationNotFoundException("Consultation with id " + id + " not found!")));
+        if (isRecordedInLedger(existingConsultation.get())) {
+            financialLedgerService.reverseConsultation(existingConsultation.get().getConsultationDate(),
+                    existingConsultation.get().getPrice(), existingConsultation.get().getDueAmount());
+            financialLedgerService.recordConsultation(consultationDto.getConsultationDate(),
+                    consultationDto.getPrice(), consultationDto.getDueAmount());
+        }
         existingConsultation.get().setNotes(consultationDto.getNotes());
         existingConsultation.get().setConsultationDate(consultationDto.getConsultationDate());
         existingConsultation.get().setPrice(consultationDto.getPrice());
@@ -98,10 +136,15 @@ public class ConsultationServiceImpl implements ConsultationService {
      *
      * @param id the consultation ID
      */
+    @Transactional
     public void deleteConsultation(Long id) {
-        Optional<Consultation> consultation = Optional.ofNullable(consultationRepository.findById(id)
+        Optional<Consultation> consultation = Optional.ofNullable(consultationRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ConsultationNotFoundException("Consultation with id " + id + " not found!")));
         if (consultation.isPresent()) {
+            if (isRecordedInLedger(consultation.get())) {
+                financialLedgerService.reverseConsultation(consultation.get().getConsultationDate(),
+                        consultation.get().getPrice(), consultation.get().getDueAmount());
+            }
             consultation.get().setDeleted(true);
             consultationRepository.save(consultation.get());
         }
@@ -109,6 +152,7 @@ public class ConsultationServiceImpl implements ConsultationService {
 
     /**
      * Retrieves the financial report for a specific date.
+     * The report is read from the pre-aggregated financial ledger.
      *
      * @param date the date for the financial report
      * @return the financial report data transfer object
@@ -117,9 +161,60 @@ public class ConsultationServiceImpl implements ConsultationService {
         Month month = date.getMonth();
         int m = convertMonthNameToInt(String.valueOf(month));
         int year = date.getYear();
-        Double monthlyEarning = consultationRepository.findMonthlyEarnings(m, year);
-        Double totalEarning = consultationRepository.findTotalEarnings();
-        Double totalDueAmount = consultationRepository.findTotalBalance();
-        return new FinancialReportDto(monthlyEarning, totalEarning, totalDueAmount);
+        return financialLedgerService.getReport(year, m);
+    }
+
+    /**
+     * Retrieves the earnings and dues of a date range, bucketed by the given granularity.
+     * All buckets are computed by a single grouped query, shared by concurrent requests for the same range;
+     * buckets without consultations are filled in with zeros.
+     *
+     * @param from the first day of the range
+     * @param to the last day of the range
+     * @param granularity the width of the buckets
+     * @return the financial series data transfer object
+     * @throws IllegalArgumentException if the range is empty or has more than {@value #MAX_SERIES_BUCKETS} buckets
+     */
+    public FinancialSeriesDto getFinancialSeries(LocalDate from, LocalDate to, ReportGranularity granularity) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("The end of the range must not be before its start");
+        }
+        LocalDate firstBucket = granularity.truncate(from);
+        long buckets = granularity.getUnit().between(firstBucket, granularity.truncate(to)) + 1;
+        if (buckets > MAX_SERIES_BUCKETS) {
+            throw new IllegalArgumentException("The range spans " + buckets + " buckets, at most " + MAX_SERIES_BUCKETS + " are allowed");
+        }
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        Map<LocalDate, FinancialPeriodView> periods = new HashMap<>();
+        for (FinancialPeriodView period : seriesFlights.execute(new SeriesKey(granularity, start, end),
+                () -> consultationRepository.findFinancialSeries(granularity.fieldName(), start, end))) {
+            periods.put(LocalDate.parse(period.getPeriodStart()), period);
+        }
+        List<FinancialSeriesPointDto> points = new ArrayList<>((int) buckets);
+        for (LocalDate bucket = firstBucket; !bucket.isAfter(to); bucket = bucket.plus(1, granularity.getUnit())) {
+            FinancialPeriodView period = periods.get(bucket);
+            points.add(period != null
+                    ? new FinancialSeriesPointDto(bucket, period.getEarnings(), period.getDueAmount())
+                    : new FinancialSeriesPointDto(bucket, 0.0, 0.0));
+        }
+        return new FinancialSeriesDto(granularity, from, to, points);
+    }
+
+    /**
+     * Checks if a consultation is counted in the financial ledger, which only holds consultations of active clients.
+     * The client is checked by ID, without loading it, and kept from being deleted until the transaction ends.
+     *
+     * @param consultation the consultation, which must not be marked as deleted
+     * @return true if the consultation's client is not marked as deleted, false otherwise
+     */
+    private boolean isRecordedInLedger(Consultation consultation) {
+        return clientRepository.lockActiveById(consultation.getClient().getId()).isPresent();
+    }
+
+    /**
+     * Key of a financial series query.
+     */
+    private record SeriesKey(ReportGranularity granularity, LocalDateTime start, LocalDateTime end) {
     }
 }
@@ -0,0 +1,241 @@
+package com.example.AstroTrack.service.Impl;
+
+import com.example.AstroTrack.exception.ImageNotFoundException;
+import com.example.AstroTrack.service.ImageStorageService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * File system implementation of the ImageStorageService interface.
+ * Images are written once to {@code <location>/<first two hash characters>/<hash>} and never modified,
+ * variants are stored next to their image as {@code <hash>-<variant>}.
+ */
+@Service
+public class FileSystemImageStorageServiceImpl implements ImageStorageService {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}(-[a-z0-9]+)?");
+
+    private static final Pattern VARIANT_PATTERN = Pattern.compile("[a-z0-9]+");
+
+    @Value("${astrotrack.image-store.location}")
+    private String location;
+
+    private Path root;
+
+    private Path tmp;
+
+    /**
+     * Creates the storage directories if they do not exist yet.
+     *
+     * @throws IOException if the directories cannot be created
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(location).toAbsolutePath().normalize();
+        tmp = root.resolve("tmp");
+        Files.createDirectories(tmp);
+    }
+
+    /**
+     * Stores the given image content, reusing an existing entry with the same content.
+     * The content is streamed to a temporary file while it is hashed and then moved into place.
+     *
+     * @param content the image content
+     * @return the content hash under which the image is stored
+     * @throws IOException if an I/O error occurs
+     */
+    public String store(InputStream content) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(tmp, "upload-", ".part");
+        try {
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                content.transferTo(out);
+            }
+            String key = HexFormat.of().formatHex(digest.digest());
+            Path target = resolve(key);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Stored concurrently by another request with the same content.
+                }
+            }
+            return key;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Stores a variant derived from an already stored image, such as a thumbnail.
+     *
+     * @param key the content hash of the original image
+     * @param variant the name of the variant
+     * @param content the variant content
+     * @return the key under which the variant is stored
+     * @throws IOException if an I/O error occurs
+     */
+    public String storeVariant(String key, String variant, InputStream content) throws IOException {
+        String variantKey = variantKey(key, variant);
+        Path temp = Files.createTempFile(tmp, "variant-", ".part");
+        try {
+            Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            Path target = resolve(variantKey);
+            Files.createDirectories(target.getParent());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return variantKey;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Returns the key under which a variant of an image is stored.
+     *
+     * @param key the content hash of the original image
+     * @param variant the name of the variant
+     * @return the key of the variant
+     */
+    public String variantKey(String key, String variant) {
+        if (variant == null || !VARIANT_PATTERN.matcher(variant).matches()) {
+            throw new IllegalArgumentException("Invalid image variant: " + variant);
+        }
+        return key + "-" + variant;
+    }
+
+    /**
+     * Checks if an image is stored under the given key.
+     *
+     * @param key the content hash of the image
+     * @return true if the image exists, false otherwise
+     */
+    public boolean exists(String key) {
+        return Files.exists(resolve(key));
+    }
+
+    /**
+     * Returns the size of a stored image.
+     *
+     * @param key the content hash of the image
+     * @return the size of the image in bytes
+     * @throws ImageNotFoundException if no image is stored under the key
+     * @throws IOException if an I/O error occurs
+     */
+    public long size(String key) throws IOException {
+        try {
+            return Files.size(resolve(key));
+        } catch (NoSuchFileException e) {
+            throw notFound(key);
+        }
+    }
+
+    /**
+     * Opens a stored image for reading.
+     *
+     * @param key the content hash of the image
+     * @return an input stream over the image content
+     * @throws ImageNotFoundException if no image is stored under the key
+     * @throws IOException if an I/O error occurs
+     */
+    public InputStream open(String key) throws IOException {
+        try {
+            return Files.newInputStream(resolve(key));
+        } catch (NoSuchFileException e) {
+            throw notFound(key);
+        }
+    }
+
+    /**
+     * Reads a stored image fully into memory.
+     *
+     * @param key the content hash of the image
+     * @return the image content
+     * @throws ImageNotFoundException if no image is stored under the key
+     * @throws IOException if an I/O error occurs
+     */
+    public byte[] read(String key) throws IOException {
+        try {
+            return Files.readAllBytes(resolve(key));
+        } catch (NoSuchFileException e) {
+            throw notFound(key);
+        }
+    }
+
+    /**
+     * Transfers a stored image to the given channel using {@link FileChannel#transferTo}.
+     *
+     * @param key the content hash of the image
+     * @param target the channel to write the image to
+     * @return the number of bytes transferred
+     * @throws ImageNotFoundException if no image is stored under the key
+     * @throws IOException if an I/O error occurs
+     */
+    public long transferTo(String key, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            return position;
+        } catch (NoSuchFileException e) {
+            throw notFound(key);
+        }
+    }
+
+    /**
+     * Resolves the path of an image, rejecting keys that are not content hashes or variants of them.
+     *
+     * @param key the content hash of the image
+     * @return the path of the image
+     */
+    private Path resolve(String key) {
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid image key: " + key);
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    /**
+     * Creates the exception for an image that is not stored.
+     *
+     * @param key the content hash of the image
+     * @return the exception
+     */
+    private static ImageNotFoundException notFound(String key) {
+        return new ImageNotFoundException("Image " + key + " not found!");
+    }
+
+    /**
+     * Creates a new SHA-256 message digest.
+     *
+     * @return the message digest
+     */
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.example.AstroTrack.service.Impl;
+
+import com.example.AstroTrack.dto.FinancialLedgerVerificationDto;
+import com.example.AstroTrack.dto.FinancialReportDto;
+import com.example.AstroTrack.dto.InvalidationEventDto;
+import com.example.AstroTrack.entity.FinancialLedger;
+import com.example.AstroTrack.repository.FinancialLedgerRepository;
+import com.example.AstroTrack.repository.projection.LedgerPeriodView;
+import com.example.AstroTrack.service.FinancialLedgerService;
+import com.example.AstroTrack.service.InvalidationBusService;
+import com.example.AstroTrack.utils.SingleFlight;
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of the FinancialLedgerService interface backed by the financial_ledger table.
+ * Amounts are kept as exact decimals rounded to cents, so repeated increments never drift.
+ * Reports are served from the financialMonthly and financialTotals caches. Every ledger write evicts the entries of
+ * the months it touches, once right away and once more when its transaction completes, so no reader can cache
+ * amounts of a transaction that is still in progress. Concurrent cache misses for the same month share one lookup.
+ * Once the transaction completes the eviction is broadcast over the invalidation bus, so other instances evict too.
+ */
+@Service
+public class FinancialLedgerServiceImpl implements FinancialLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FinancialLedgerServiceImpl.class);
+
+    /**
+     * Name of the cache holding the earnings of single months.
+     */
+    public static final String MONTHLY_CACHE = "financialMonthly";
+
+    /**
+     * Name of the cache holding the totals over all months.
+     */
+    public static final String TOTALS_CACHE = "financialTotals";
+
+    private static final String TOTALS_KEY = periodName(FinancialLedger.TOTALS_PERIOD, FinancialLedger.TOTALS_PERIOD);
+
+    @Autowired
+    FinancialLedgerRepository financialLedgerRepository;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    InvalidationBusService invalidationBusService;
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final SingleFlight<String, ReportAmounts> reportFlights = new SingleFlight<>("financialReport");
+
+    /**
+     * Applies the report cache evictions of any instance.
+     */
+    @PostConstruct
+    public void init() {
+        invalidationBusService.subscribe(this::onInvalidation);
+    }
+
+    /**
+     * Adds a consultation to the ledger.
+     *
+     * @param consultationDate the date of the consultation
+     * @param price the price of the consultation
+     * @param dueAmount the due amount for the consultation
+     */
+    @Transactional
+    public void recordConsultation(Date consultationDate, Double price, Double dueAmount) {
+        apply(consultationDate, toCents(price), toCents(dueAmount));
+    }
+
+    /**
+     * Removes a previously recorded consultation from the ledger.
+     *
+     * @param consultationDate the recorded date of the consultation
+     * @param price the recorded price of the consultation
+     * @param dueAmount the recorded due amount for the consultation
+     */
+    @Transactional
+    public void reverseConsultation(Date consultationDate, Double price, Double dueAmount) {
+        apply(consultationDate, toCents(price).negate(), toCents(dueAmount).negate());
+    }
+
+    /**
+     * Removes all consultations of a client from the ledger.
+     * Must be called before the client is marked as deleted.
+     *
+     * @param clientId the client ID
+     */
+    @Transactional
+    public void removeClient(Long clientId) {
+        List<String> periods = new ArrayList<>();
+        for (LedgerPeriodView period : financialLedgerRepository.computeClientPeriods(clientId)) {
+            periods.add(periodName(period.getYear(), period.getMonth()));
+        }
+        financialLedgerRepository.subtractClient(clientId);
+        evict(periods);
+    }
+
+    /**
+     * Reads the financial report of a month from the caches, falling back to a single indexed ledger lookup.
+     *
+     * @param year the year
+     * @param month the month, from 1 to 12
+     * @return the financial report data transfer object, with null amounts where nothing was recorded
+     */
+    public FinancialReportDto getReport(int year, int month) {
+        String period = periodName(year, month);
+        Cache monthlyCache = cache(MONTHLY_CACHE);
+        Cache totalsCache = cache(TOTALS_CACHE);
+        Cache.ValueWrapper monthly = monthlyCache.get(period);
+        Cache.ValueWrapper totals = totalsCache.get(TOTALS_KEY);
+        if (monthly == null || totals == null) {
+            long evictionsBefore = evictions.get();
+            ReportAmounts amounts = reportFlights.execute(period, () -> loadReport(year, month));
+            if (evictions.get() == evictionsBefore) {
+                monthlyCache.put(period, amounts.monthlyEarning());
+                totalsCache.put(TOTALS_KEY, amounts.totals());
+            }
+            monthly = new SimpleValueWrapper(amounts.monthlyEarning());
+            totals = new SimpleValueWrapper(amounts.totals());
+        }
+        FinancialReportDto financialReportDto = new FinancialReportDto();
+        financialReportDto.setMonthlyEarning((Double) monthly.get());
+        if (totals.get() instanceof ReportTotals reportTotals) {
+            financialReportDto.setTotalEarning(reportTotals.earning());
+            financialReportDto.setTotalDueAmount(reportTotals.dueAmount());
+        }
+        return financialReportDto;
+    }
+
+    /**
+     * Reads the earnings of a month and the totals from the ledger with a single indexed lookup.
+     *
+     * @param year the year
+     * @param month the month, from 1 to 12
+     * @return the amounts, null where nothing was recorded
+     */
+    private ReportAmounts loadReport(int year, int month) {
+        Double monthlyEarning = null;
+        ReportTotals reportTotals = null;
+        for (FinancialLedger ledger : financialLedgerRepository.findPeriodWithTotals(year, month)) {
+            if (ledger.getYear() == FinancialLedger.TOTALS_PERIOD) {
+                reportTotals = new ReportTotals(ledger.getEarnings().doubleValue(), ledger.getDueAmount().doubleValue());
+            } else {
+                monthlyEarning = ledger.getEarnings().doubleValue();
+            }
+        }
+        return new ReportAmounts(monthlyEarning, reportTotals);
+    }
+
+    /**
+     * Checks if the ledger has been built.
+     *
+     * @return true if the ledger holds its totals row, false otherwise
+     */
+    public boolean isBuilt() {
+        return financialLedgerRepository.findByYearAndMonth(FinancialLedger.TOTALS_PERIOD, FinancialLedger.TOTALS_PERIOD).isPresent();
+    }
+
+    /**
+     * Recomputes the ledger from the consultations and verifies the result.
+     * The ledger is locked meanwhile; concurrent consultation writes wait and apply their changes on top.
+     *
+     * @return the verification result
+     */
+    @Transactional
+    public FinancialLedgerVerificationDto rebuild() {
+        financialLedgerRepository.lockLedger();
+        financialLedgerRepository.deleteLedger();
+        financialLedgerRepository.insertComputedPeriods();
+        evictAll();
+        FinancialLedgerVerificationDto verification = verify();
+        logger.info("Rebuilt financial ledger with {} periods", verification.getPeriodsChecked());
+        return verification;
+    }
+
+    /**
+     * Compares the ledger with the amounts computed directly from the consultations.
+     * Months that are missing on one side count as zero.
+     *
+     * @return the verification result
+     */
+    @Transactional
+    public FinancialLedgerVerificationDto verify() {
+        Map<String, FinancialLedger> ledgerRows = new HashMap<>();
+        for (FinancialLedger ledger : financialLedgerRepository.findAll()) {
+            ledgerRows.put(periodName(ledger.getYear(), ledger.getMonth()), ledger);
+        }
+        Set<String> periods = new HashSet<>(ledgerRows.keySet());
+        List<String> mismatches = new ArrayList<>();
+        for (LedgerPeriodView computed : financialLedgerRepository.computePeriods()) {
+            String period = periodName(computed.getYear(), computed.getMonth());
+            periods.add(period);
+            FinancialLedger ledger = ledgerRows.remove(period);
+            compare(period, ledger, computed.getEarnings(), computed.getDueAmount(), mismatches);
+        }
+        for (Map.Entry<String, FinancialLedger> remaining : ledgerRows.entrySet()) {
+            compare(remaining.getKey(), remaining.getValue(), BigDecimal.ZERO, BigDecimal.ZERO, mismatches);
+        }
+        if (!mismatches.isEmpty()) {
+            logger.warn("Financial ledger does not match the consultations: {}", mismatches);
+        }
+        return new FinancialLedgerVerificationDto(mismatches.isEmpty(), periods.size(), mismatches);
+    }
+
+    /**
+     * Adds amounts to the month of a consultation and to the totals.
+     * Consultations without a date belong to no month and are not part of the ledger, so they are skipped.
+     *
+     * @param consultationDate the date of the consultation, may be null
+     * @param earnings the earnings to add
+     * @param dueAmount the due amount to add
+     */
+    private void apply(Date consultationDate, BigDecimal earnings, BigDecimal dueAmount) {
+        if (consultationDate == null) {
+            return;
+        }
+        LocalDate date = consultationDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        financialLedgerRepository.addToPeriod(date.getYear(), date.getMonthValue(), earnings, dueAmount);
+        financialLedgerRepository.addToPeriod(FinancialLedger.TOTALS_PERIOD, FinancialLedger.TOTALS_PERIOD, earnings, dueAmount);
+        evict(List.of(periodName(date.getYear(), date.getMonthValue()), TOTALS_KEY));
+    }
+
+    /**
+     * Evicts the cached amounts of the given months now and again when the current transaction completes,
+     * and then on every other instance.
+     *
+     * @param periods the names of the months, including "total" for the totals
+     */
+    private void evict(List<String> periods) {
+        if (periods.isEmpty()) {
+            return;
+        }
+        Runnable eviction = () -> evictLocally(periods);
+        eviction.run();
+        afterCompletion(eviction);
+        broadcast(InvalidationEventDto.cacheEvicted(MONTHLY_CACHE, periods));
+    }
+
+    /**
+     * Clears the cached amounts of all months now and again when the current transaction completes,
+     * and then on every other instance.
+     */
+    private void evictAll() {
+        Runnable eviction = this::evictAllLocally;
+        eviction.run();
+        afterCompletion(eviction);
+        broadcast(InvalidationEventDto.cacheEvicted(MONTHLY_CACHE, List.of()));
+    }
+
+    /**
+     * Evicts the cached amounts of the given months on this instance.
+     *
+     * @param periods the names of the months, including "total" for the totals
+     */
+    private void evictLocally(List<String> periods) {
+        evictions.incrementAndGet();
+        for (String period : periods) {
+            cache(TOTALS_KEY.equals(period) ? TOTALS_CACHE : MONTHLY_CACHE).evict(period);
+        }
+    }
+
+    /**
+     * Clears the cached amounts of all months on this instance.
+     */
+    private void evictAllLocally() {
+        evictions.incrementAndGet();
+        cache(MONTHLY_CACHE).clear();
+        cache(TOTALS_CACHE).clear();
+    }
+
+    /**
+     * Publishes an eviction once the current transaction has completed, or right away outside of a transaction.
+     *
+     * @param event the eviction
+     */
+    private void broadcast(InvalidationEventDto event) {
+        Runnable publication = () -> invalidationBusService.publish(event);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            afterCompletion(publication);
+        } else {
+            publication.run();
+        }
+    }
+
+    /**
+     * Applies a report cache eviction broadcast by any instance, including this one.
+     *
+     * @param event the invalidation
+     */
+    private void onInvalidation(InvalidationEventDto event) {
+        if (event.type() == InvalidationEventDto.Type.CACHE_EVICTED && MONTHLY_CACHE.equals(event.name())) {
+            if (event.keys().isEmpty()) {
+                evictAllLocally();
+            } else {
+                evictLocally(event.keys());
+            }
+        }
+    }
+
+    /**
+     * Runs an action when the current transaction completes, whether it commits or rolls back.
+     *
+     * @param action the action to run
+     */
+    private static void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns one of the financial report caches.
+     *
+     * @param name the name of the cache
+     * @return the cache
+     * @throws IllegalStateException if the cache is not configured
+     */
+    private Cache cache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            throw new IllegalStateException("Cache " + name + " is not configured");
+        }
+        return cache;
+    }
+
+    /**
+     * Compares a ledger row with the computed amounts of its month.
+     *
+     * @param period the name of the month
+     * @param ledger the ledger row, or null if the ledger has no row for the month
+     * @param earnings the computed earnings
+     * @param dueAmount the computed due amount
+     * @param mismatches the list the description of a mismatch is added to
+     */
+    private static void compare(String period, FinancialLedger ledger, BigDecimal earnings, BigDecimal dueAmount, List<String> mismatches) {
+        BigDecimal ledgerEarnings = ledger != null ? ledger.getEarnings() : BigDecimal.ZERO;
+        BigDecimal ledgerDueAmount = ledger != null ? ledger.getDueAmount() : BigDecimal.ZERO;
+        if (ledgerEarnings.compareTo(earnings) != 0 || ledgerDueAmount.compareTo(dueAmount) != 0) {
+            mismatches.add(period + ": ledger " + ledgerEarnings + "/" + ledgerDueAmount + ", computed " + earnings + "/" + dueAmount);
+        }
+    }
+
+    /**
+     * Returns the name of a ledger month.
+     *
+     * @param year the year
+     * @param month the month
+     * @return the name of the month, "total" for the totals row
+     */
+    private static String periodName(int year, int month) {
+        return year == FinancialLedger.TOTALS_PERIOD ? "total" : String.format("%04d-%02d", year, month);
+    }
+
+    /**
+     * Rounds an amount to cents.
+     *
+     * @param amount the amount, may be null
+     * @return the amount rounded to cents, zero if the amount is null
+     */
+    private static BigDecimal toCents(Double amount) {
+        return amount == null ? BigDecimal.ZERO : BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Cached totals over all months.
+     */
+    private record ReportTotals(Double earning, Double dueAmount) {
+    }
+
+    /**
+     * Amounts of a report as read from the ledger.
+     */
+    private record ReportAmounts(Double monthlyEarning, ReportTotals totals) {
+    }
+}
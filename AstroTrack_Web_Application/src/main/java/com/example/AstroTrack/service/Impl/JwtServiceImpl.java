@@ -4,22 +4,30 @@ package com.example.AstroTrack.service.Impl;
 import com.example.AstroTrack.service.JwtService;
 import com.example.AstroTrack.service.TokenService;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
 /**
  * Implementation of the JwtService interface.
+ * The signing key is decoded once and tokens are verified with a single shared parser, which is thread-safe.
  */
 @Component
 public class JwtServiceImpl implements JwtService {
@@ -27,8 +35,34 @@ public class JwtServiceImpl implements JwtService {
     @Autowired
     private TokenService tokenService;
 
+    /**
+     * Name of the claim holding the authorities of the user the token was issued to.
+     */
+    public static final String ROLES_CLAIM = "roles";
+
+    /**
+     * How long an access token stays valid after it is issued.
+     */
+    public static final Duration ACCESS_TOKEN_LIFETIME = Duration.ofMinutes(30);
+
     private static final String SECRET = "4261656C64756E67asvjxhvsdjsjdcsajxvsyuaf2fwuqyf67e276dwutduwqfd72fed12f7fd7621cywqfd";
 
+    private static final Key SIGNING_KEY = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+
+    private static final JwtParser PARSER = Jwts.parserBuilder().setSigningKey(SIGNING_KEY).build();
+
+    /**
+     * Parses the given JWT token and verifies its signature and expiration.
+     *
+     * @param token the JWT token
+     * @return the claims of the token
+     * @throws io.jsonwebtoken.ExpiredJwtException if the token has expired
+     * @throws io.jsonwebtoken.JwtException if the token is malformed or its signature is invalid
+     */
+    public Claims parseToken(String token) {
+        return PARSER.parseClaimsJws(token).getBody();
+    }
+
     /**
      * Extracts the username from the given JWT token.
      *
@@ -58,40 +92,71 @@ public class JwtServiceImpl implements JwtService {
      * @return the claim extracted from the token
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseToken(token);
         return claimsResolver.apply(claims);
     }
 
     /**
-     * Extracts all claims from the given JWT token.
+     * Checks if a parsed JWT token is expired or blacklisted.
      *
+     * @param claims the claims of the token
      * @param token the JWT token
-     * @return the claims extracted from the token
+     * @return true if the token is expired or blacklisted, false otherwise
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token).getBody();
+    private boolean isTokenExpired(Claims claims, String token) {
+        return claims.getExpiration().before(new Date()) || tokenService.isTokenBlacklisted(token);
     }
 
     /**
-     * Checks if the given JWT token is expired or blacklisted.
+     * Validates the given JWT token against the provided user details.
      *
      * @param token the JWT token
-     * @return true if the token is expired or blacklisted, false otherwise
+     * @param userDetails the user details
+     * @return true if the token is valid, false otherwise
      */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date()) && tokenService.isTokenBlacklisted(token);
+    public Boolean validateToken(String token, UserDetails userDetails) {
+        return validateToken(parseToken(token), token, userDetails);
     }
 
     /**
-     * Validates the given JWT token against the provided user details.
+     * Validates an already parsed JWT token against the provided user details, without parsing it again.
      *
+     * @param claims the claims of the token
      * @param token the JWT token
      * @param userDetails the user details
      * @return true if the token is valid, false otherwise
      */
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    public Boolean validateToken(Claims claims, String token, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims, token);
+    }
+
+    /**
+     * Validates an already parsed JWT token on its own, without consulting the user it was issued to.
+     *
+     * @param claims the claims of the token
+     * @param token the JWT token
+     * @return true if the token is neither expired nor blacklisted, false otherwise
+     */
+    public Boolean validateToken(Claims claims, String token) {
+        return claims.getSubject() != null && !isTokenExpired(claims, token);
+    }
+
+    /**
+     * Extracts the authorities embedded in a parsed JWT token.
+     *
+     * @param claims the claims of the token
+     * @return the granted authorities, empty if the token carries none
+     */
+    public Collection<GrantedAuthority> extractAuthorities(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        if (!(roles instanceof Collection<?> names)) {
+            return List.of();
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(names.size());
+        for (Object name : names) {
+            authorities.add(new SimpleGrantedAuthority(String.valueOf(name)));
+        }
+        return authorities;
     }
 
     /**
@@ -106,13 +171,15 @@ public class JwtServiceImpl implements JwtService {
     }
 
     /**
-     * Generates a signing key from the secret.
+     * Generates a JWT token for the given user, embedding the user's authorities as the roles claim.
      *
-     * @return the generated key
+     * @param userDetails the user details
+     * @return the generated JWT token
      */
-    private Key get() {
-        byte[] key = Decoders.BASE64.decode(SECRET);
-        return Keys.hmacShaKeyFor(key);
+    public String generateToken(UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLES_CLAIM, userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        return createToken(claims, userDetails.getUsername());
     }
 
     /**
@@ -127,8 +194,8 @@ public class JwtServiceImpl implements JwtService {
                 .setClaims(claims)
                 .setSubject(username)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 30)) // 20 minutes expiration
-                .signWith(SignatureAlgorithm.HS256, get())
+                .setExpiration(new Date(System.currentTimeMillis() + ACCESS_TOKEN_LIFETIME.toMillis()))
+                .signWith(SIGNING_KEY, SignatureAlgorithm.HS256)
                 .compact();
     }
 }
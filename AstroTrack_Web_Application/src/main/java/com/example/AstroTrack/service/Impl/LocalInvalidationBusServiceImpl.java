@@ -0,0 +1,49 @@
+package com.example.AstroTrack.service.Impl;
+
+import com.example.AstroTrack.dto.InvalidationEventDto;
+import com.example.AstroTrack.service.InvalidationBusService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of the InvalidationBusService interface that delivers events within the JVM only.
+ * Used for single instance deployments and tests, where several services sharing one bus stand in for a cluster.
+ */
+@Service
+@ConditionalOnProperty(name = "astrotrack.invalidation.bus", havingValue = "local", matchIfMissing = true)
+public class LocalInvalidationBusServiceImpl implements InvalidationBusService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalInvalidationBusServiceImpl.class);
+
+    private final List<Consumer<InvalidationEventDto>> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Delivers an invalidation to every subscriber on the calling thread.
+     *
+     * @param event the invalidation
+     */
+    public void publish(InvalidationEventDto event) {
+        for (Consumer<InvalidationEventDto> subscriber : subscribers) {
+            try {
+                subscriber.accept(event);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to apply invalidation {}", event, e);
+            }
+        }
+    }
+
+    /**
+     * Registers a handler for the published invalidations.
+     *
+     * @param subscriber the handler, called once per event
+     */
+    public void subscribe(Consumer<InvalidationEventDto> subscriber) {
+        subscribers.add(subscriber);
+    }
+}
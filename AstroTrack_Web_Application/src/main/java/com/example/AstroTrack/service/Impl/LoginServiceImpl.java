@@ -0,0 +1,80 @@
+package com.example.AstroTrack.service.Impl;
+
+import com.example.AstroTrack.exception.TooManyLoginAttemptsException;
+import com.example.AstroTrack.service.LoginService;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of the LoginService interface on a dedicated, bounded executor.
+ * Password hashing is CPU bound, so a login storm on request threads would starve every other request. Logins are
+ * verified by a fixed number of threads instead, and the request thread is released while they wait. Logins beyond
+ * the queue capacity are rejected right away, so clients back off instead of piling up. The executor is published as
+ * the login executor metrics.
+ */
+@Service
+public class LoginServiceImpl implements LoginService {
+
+    @Autowired
+    AuthenticationManager authenticationManager;
+
+    @Value("${astrotrack.login.threads:0}")
+    private int threads;
+
+    @Value("${astrotrack.login.queue-capacity:100}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Creates the login executor, with one thread per processor unless configured otherwise.
+     */
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("login-"));
+        new ExecutorServiceMetrics(executor, "login", List.of()).bindTo(Metrics.globalRegistry);
+    }
+
+    /**
+     * Stops the login executor.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Verifies the credentials of a user on the bounded login executor.
+     *
+     * @param username the username
+     * @param password the password
+     * @return a future completed with the authentication, or completed exceptionally if the credentials are invalid
+     * @throws TooManyLoginAttemptsException if the login queue is full
+     */
+    public CompletableFuture<Authentication> authenticate(String username, String password) {
+        try {
+            return CompletableFuture.supplyAsync(() -> authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(username, password)), executor);
+        } catch (RejectedExecutionException e) {
+            throw new TooManyLoginAttemptsException("Too many login attempts, please try again shortly.");
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.AstroTrack.service.Impl;
+
+import com.example.AstroTrack.dto.InvalidationEventDto;
+import com.example.AstroTrack.service.InvalidationBusService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of the InvalidationBusService interface on PostgreSQL LISTEN/NOTIFY, so instances sharing a
+ * database need no further infrastructure.
+ * Events are sent as JSON notifications on the astrotrack_invalidation channel. Every instance keeps one pooled
+ * connection listening on the channel and blocks on it until a notification arrives, so events are applied within
+ * milliseconds without polling. A lost connection is reopened after a short delay; events published in between are
+ * missed by that instance.
+ */
+@Service
+@ConditionalOnProperty(name = "astrotrack.invalidation.bus", havingValue = "postgres")
+public class PostgresInvalidationBusServiceImpl implements InvalidationBusService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresInvalidationBusServiceImpl.class);
+
+    /**
+     * Name of the notification channel.
+     */
+    public static final String CHANNEL = "astrotrack_invalidation";
+
+    private static final int WAIT_MILLIS = 10_000;
+
+    private static final long RECONNECT_DELAY_MILLIS = 1_000;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    private final List<Consumer<InvalidationEventDto>> subscribers = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+
+    private volatile Connection listenerConnection;
+
+    private Thread listener;
+
+    /**
+     * Starts listening on the notification channel.
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        listener = new Thread(this::listen, "invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    /**
+     * Stops listening and releases the listening connection.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        listener.interrupt();
+        Connection connection = listenerConnection;
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.debug("Failed to close the invalidation listener connection", e);
+            }
+        }
+    }
+
+    /**
+     * Sends an invalidation to every instance listening on the channel, including this one.
+     * The notification is sent on its own auto-commit connection, so it is never held back by a transaction.
+     * A failure is logged rather than thrown, as callers publish after their own work has completed.
+     *
+     * @param event the invalidation
+     * @throws IllegalStateException if the event cannot be serialized
+     */
+    public void publish(InvalidationEventDto event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize invalidation " + event, e);
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, CHANNEL);
+            statement.setString(2, payload);
+            statement.execute();
+        } catch (SQLException e) {
+            logger.warn("Failed to publish invalidation {}", event, e);
+        }
+    }
+
+    /**
+     * Registers a handler for the invalidations published by any instance.
+     *
+     * @param subscriber the handler, called once per event on the listener thread
+     */
+    public void subscribe(Consumer<InvalidationEventDto> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * Listens on the channel until the service is stopped, reconnecting whenever the connection is lost.
+     */
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                listenerConnection = connection;
+                statement.execute("LISTEN " + CHANNEL);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(WAIT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            deliver(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    logger.warn("Lost the invalidation channel, reconnecting", e);
+                    sleep(RECONNECT_DELAY_MILLIS);
+                }
+            }
+        }
+    }
+
+    /**
+     * Passes a received notification to every subscriber.
+     *
+     * @param payload the JSON encoded invalidation
+     */
+    private void deliver(String payload) {
+        InvalidationEventDto event;
+        try {
+            event = objectMapper.readValue(payload, InvalidationEventDto.class);
+        } catch (JsonProcessingException e) {
+            logger.warn("Ignoring malformed invalidation {}", payload, e);
+            return;
+        }
+        for (Consumer<InvalidationEventDto> subscriber : subscribers) {
+            try {
+                subscriber.accept(event);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to apply invalidation {}", event, e);
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,25 +1,64 @@
 package com.example.AstroTrack.service.Impl;
 
+import com.example.AstroTrack.config.UserDetailsImpl;
+import com.example.AstroTrack.dto.InvalidationEventDto;
+import com.example.AstroTrack.dto.IssuedRefreshTokenDto;
 import com.example.AstroTrack.dto.RefreshTokenRequestDto;
 import com.example.AstroTrack.entity.RefreshToken;
 import com.example.AstroTrack.entity.Users;
 import com.example.AstroTrack.repository.RefreshTokenRepository;
 import com.example.AstroTrack.repository.UserRepository;
+import com.example.AstroTrack.service.InvalidationBusService;
 import com.example.AstroTrack.service.RefreshTokenService;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import com.example.AstroTrack.utils.DigestUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.*;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service implementation for managing refresh tokens.
+ * Tokens are random 256 bit values, stored only as their SHA-256 digest, and are replaced by a new token on every
+ * use. Active tokens are kept in a near-cache by digest until they expire, so a refresh only reads the database on a
+ * cache miss. A token is only accepted if deleting its row succeeds, so a token used concurrently or on another
+ * instance is never accepted twice, even while a stale cache entry remains. Expired tokens are deleted by a
+ * scheduled sweep.
  */
 @Service
 public class RefreshTokenServiceImpl implements RefreshTokenService {
 
-    private static final String SECRET = "4261656C64756E67asvjxhvsdjsjdcsajxvsyuaf2fwuqyf67e276dwutduwqfd72fed12f7fd7621cywqfd";
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenServiceImpl.class);
+
+    /**
+     * How long a refresh token stays valid after the login it was issued for. Rotation keeps the expiry date.
+     */
+    public static final Duration REFRESH_TOKEN_LIFETIME = Duration.ofDays(180);
+
+    /**
+     * Name of the near-cache of active refresh tokens, used for its metrics and its invalidations.
+     */
+    public static final String REFRESH_TOKENS_CACHE = "refreshTokens";
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
 
     @Autowired
     RefreshTokenRepository refreshTokenRepository;
@@ -27,58 +66,72 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    InvalidationBusService invalidationBusService;
+
+    @Value("${astrotrack.refresh-token-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${astrotrack.refresh-token.sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    private Cache<String, ActiveToken> activeTokens;
+
     /**
-     * Creates a new refresh token for a specific user.
-     *
-     * @param username the username of the user
-     * @return an optional containing the created refresh token
+     * Creates the near-cache, registers its metrics and applies the invalidations of used tokens.
      */
-    public Optional<RefreshToken> createRefreshToken(String username) {
-        Map<String, Object> claims = new HashMap<>();
-        String token = Jwts.builder()
-                .setClaims(claims)
-                .setSubject(username)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000L * 60 * 60 * 24 * 30 * 6))
-                .signWith(SignatureAlgorithm.HS256, SECRET)
-                .compact();
-
-        RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setToken(UUID.randomUUID().toString());
-        refreshToken.setExpiryDate(new Date(System.currentTimeMillis() + 1000L * 60 * 60 * 24 * 30 * 6));
-        refreshToken.setUserInfo(userRepository.findUserByUsername(username));
-        Users existingUser = userRepository.findUserByUsername(username);
-        Optional<RefreshToken> existingToken = Optional.ofNullable(refreshTokenRepository.findByUserInfo(existingUser));
-        if (!existingToken.isEmpty()) {
-            return existingToken;
-        } else {
-            return Optional.of(refreshTokenRepository.save(refreshToken));
-        }
+    @PostConstruct
+    public void init() {
+        activeTokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ActiveTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(Metrics.globalRegistry, activeTokens, REFRESH_TOKENS_CACHE);
+        invalidationBusService.subscribe(this::onInvalidation);
     }
 
     /**
-     * Finds a refresh token by its token string.
+     * Creates a new refresh token for a user who has just been authenticated.
+     * The user is referenced by the identifier of the authenticated principal and is not loaded again.
      *
-     * @param token the token string
-     * @return an optional containing the found refresh token
+     * @param userDetails the authenticated user
+     * @return the created refresh token
      */
-    public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findByToken(token);
+    public IssuedRefreshTokenDto createRefreshToken(UserDetailsImpl userDetails) {
+        return issue(userRepository.getReferenceById(userDetails.getId()), userDetails.getUsername(),
+                new Date(System.currentTimeMillis() + REFRESH_TOKEN_LIFETIME.toMillis()));
     }
 
     /**
-     * Verifies the expiration date of a refresh token.
+     * Replaces a refresh token with a new one for the same user and the same expiry date.
+     * Every refresh token can be used only once.
      *
-     * @param token the refresh token to verify
-     * @return the verified refresh token
-     * @throws RuntimeException if the token is expired
+     * @param token the refresh token sent by the client
+     * @return the refresh token that replaces it
+     * @throws RuntimeException if the token is unknown, was already used or has expired
      */
-    public RefreshToken verifyExpiration(RefreshToken token) {
-        if (token.getExpiryDate().compareTo(new Date(System.currentTimeMillis())) < 0) {
-            refreshTokenRepository.delete(token);
-            throw new RuntimeException(token.getToken() + " Refresh token is expired. Please make a new login..!");
+    @Transactional
+    public IssuedRefreshTokenDto rotateRefreshToken(String token) {
+        if (token == null) {
+            throw new RuntimeException("Refresh Token is not in DB..!!");
+        }
+        String tokenHash = DigestUtil.tokenDigest(token);
+        ActiveToken activeToken = activeTokens.getIfPresent(tokenHash);
+        if (activeToken == null) {
+            activeToken = refreshTokenRepository.findByTokenHash(tokenHash)
+                    .map(ActiveToken::of)
+                    .orElseThrow(() -> new RuntimeException("Refresh Token is not in DB..!!"));
+        }
+        if (activeToken.expiresAt() <= System.currentTimeMillis()) {
+            throw new RuntimeException("Refresh token is expired. Please make a new login..!");
         }
-        return token;
+        forget(tokenHash);
+        if (refreshTokenRepository.deleteTokenById(activeToken.id()) == 0) {
+            throw new RuntimeException("Refresh Token is not in DB..!!");
+        }
+        return issue(userRepository.getReferenceById(activeToken.userId()), activeToken.username(),
+                new Date(activeToken.expiresAt()));
     }
 
     /**
@@ -88,11 +141,124 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
      * @throws RuntimeException if the token is not found
      */
     public void deleteToken(RefreshTokenRequestDto token) {
-        try {
-            Optional<RefreshToken> refreshToken = refreshTokenRepository.findByToken(token.getToken());
-            refreshTokenRepository.delete(refreshToken.get());
-        } catch (Exception e) {
+        String tokenHash = token.getToken() != null ? DigestUtil.tokenDigest(token.getToken()) : null;
+        if (tokenHash == null || refreshTokenRepository.deleteByTokenHash(tokenHash) == 0) {
             throw new RuntimeException("Token not found");
         }
+        forget(tokenHash);
+    }
+
+    /**
+     * Deletes the refresh tokens that have expired, in batches of their own transaction, so the sweep never holds
+     * locks on many rows at once.
+     *
+     * @return the number of deleted tokens
+     */
+    @Scheduled(fixedDelayString = "${astrotrack.refresh-token.sweep-interval:PT1H}")
+    public int purgeExpiredTokens() {
+        Date now = new Date();
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = refreshTokenRepository.deleteExpiredBatch(now, sweepBatchSize);
+            purged += deleted;
+        } while (deleted == sweepBatchSize);
+        if (purged > 0) {
+            logger.info("Deleted {} expired refresh tokens", purged);
+        }
+        return purged;
+    }
+
+    /**
+     * Stores a new refresh token for a user and remembers it in the near-cache.
+     *
+     * @param user the user, possibly an uninitialized reference
+     * @param username the username of the user
+     * @param expiryDate the expiry date of the token
+     * @return the created refresh token
+     */
+    private IssuedRefreshTokenDto issue(Users user, String username, Date expiryDate) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = DigestUtil.encode(bytes);
+        String tokenHash = DigestUtil.tokenDigest(token);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(tokenHash);
+        refreshToken.setExpiryDate(expiryDate);
+        refreshToken.setUserInfo(user);
+        int id = refreshTokenRepository.save(refreshToken).getId();
+        activeTokens.put(tokenHash, new ActiveToken(id, user.getId(), username, expiryDate.getTime()));
+        return new IssuedRefreshTokenDto(token, username, expiryDate);
+    }
+
+    /**
+     * Removes a used or deleted token from the near-cache of this instance right away, and from every other
+     * instance once the current transaction has committed, or right away outside of a transaction.
+     *
+     * @param tokenHash the digest of the token
+     */
+    private void forget(String tokenHash) {
+        activeTokens.invalidate(tokenHash);
+        InvalidationEventDto event = InvalidationEventDto.cacheEvicted(REFRESH_TOKENS_CACHE, List.of(tokenHash));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidationBusService.publish(event);
+                }
+            });
+        } else {
+            invalidationBusService.publish(event);
+        }
+    }
+
+    /**
+     * Applies a refresh token invalidation broadcast by any instance, including this one.
+     *
+     * @param event the invalidation
+     */
+    private void onInvalidation(InvalidationEventDto event) {
+        if (event.type() == InvalidationEventDto.Type.CACHE_EVICTED && REFRESH_TOKENS_CACHE.equals(event.name())) {
+            activeTokens.invalidateAll(event.keys());
+        }
+    }
+
+    /**
+     * Active refresh token as kept in the near-cache.
+     *
+     * @param id the identifier of the token row
+     * @param userId the identifier of the user the token was issued to
+     * @param username the username of the user the token was issued to
+     * @param expiresAt the time the token expires, in milliseconds since the epoch
+     */
+    private record ActiveToken(int id, Long userId, String username, long expiresAt) {
+
+        static ActiveToken of(RefreshToken refreshToken) {
+            Users user = refreshToken.getUserInfo();
+            return new ActiveToken(refreshToken.getId(), user.getId(), user.getUsername(),
+                    refreshToken.getExpiryDate().getTime());
+        }
+    }
+
+    /**
+     * Expires every near-cache entry at the expiry date of its token.
+     */
+    private static final class ActiveTokenExpiry implements Expiry<String, ActiveToken> {
+
+        @Override
+        public long expireAfterCreate(String key, ActiveToken value, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.expiresAt() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, ActiveToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, ActiveToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
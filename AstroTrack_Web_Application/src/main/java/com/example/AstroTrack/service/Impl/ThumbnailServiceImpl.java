@@ -0,0 +1,232 @@
+package com.example.AstroTrack.service.Impl;
+
+import com.example.AstroTrack.dto.ImageSize;
+import com.example.AstroTrack.service.ImageStorageService;
+import com.example.AstroTrack.service.ThumbnailService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URLConnection;
+import java.util.Iterator;
+
+/**
+ * Implementation of the ThumbnailService interface using Java ImageIO.
+ * Thumbnails are stored as JPEG variants of the original image in the image store. Images are immutable, so an image
+ * that cannot be decoded is marked with an empty variant and never decoded again.
+ */
+@Service
+public class ThumbnailServiceImpl implements ThumbnailService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailServiceImpl.class);
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private static final String UNDECODABLE_VARIANT = "undecodable";
+
+    @Autowired
+    ImageStorageService imageStorageService;
+
+    /**
+     * Generates all thumbnail renditions of a stored image.
+     * Images that cannot be decoded are left without thumbnails and served in their original form.
+     *
+     * @param imageKey the content hash of the original image
+     */
+    public void generateThumbnails(String imageKey) {
+        if (isUndecodable(imageKey)) {
+            return;
+        }
+        BufferedImage original = decode(imageKey, ImageSize.LARGE.getMaxDimension());
+        if (original == null) {
+            return;
+        }
+        for (ImageSize size : ImageSize.values()) {
+            if (size != ImageSize.ORIGINAL) {
+                writeThumbnail(imageKey, original, size);
+            }
+        }
+    }
+
+    /**
+     * Resolves the storage key of an image rendition, generating the thumbnail first if it is missing.
+     *
+     * @param imageKey the content hash of the original image
+     * @param size the requested rendition
+     * @return the storage key of the rendition
+     */
+    public String resolve(String imageKey, ImageSize size) {
+        if (size == ImageSize.ORIGINAL) {
+            return imageKey;
+        }
+        String variantKey = imageStorageService.variantKey(imageKey, size.variantName());
+        if (imageStorageService.exists(variantKey)) {
+            return variantKey;
+        }
+        if (isUndecodable(imageKey)) {
+            return imageKey;
+        }
+        BufferedImage original = decode(imageKey, size.getMaxDimension());
+        if (original == null) {
+            return imageKey;
+        }
+        return writeThumbnail(imageKey, original, size);
+    }
+
+    /**
+     * Detects the media type of a stored original image from its leading bytes.
+     *
+     * @param imageKey the content hash of the original image
+     * @return the media type of the image, application/octet-stream if it is not recognized
+     */
+    public String detectContentType(String imageKey) {
+        try (InputStream content = new BufferedInputStream(imageStorageService.open(imageKey))) {
+            String contentType = URLConnection.guessContentTypeFromStream(content);
+            return contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Determines the media type of a stored image rendition.
+     * Thumbnails are always JPEG. Original images use their recorded media type, and are only inspected if none was
+     * recorded.
+     *
+     * @param imageKey the content hash of the original image
+     * @param renditionKey the storage key of the rendition
+     * @param originalContentType the recorded media type of the original image, or null if it was not recorded
+     * @return the media type of the rendition
+     */
+    public String contentType(String imageKey, String renditionKey, String originalContentType) {
+        if (!renditionKey.equals(imageKey)) {
+            return MediaType.IMAGE_JPEG_VALUE;
+        }
+        return originalContentType != null ? originalContentType : detectContentType(imageKey);
+    }
+
+    /**
+     * Checks if an image was found to be undecodable before.
+     *
+     * @param imageKey the content hash of the image
+     * @return true if the image cannot be decoded, false otherwise
+     */
+    private boolean isUndecodable(String imageKey) {
+        return imageStorageService.exists(imageStorageService.variantKey(imageKey, UNDECODABLE_VARIANT));
+    }
+
+    /**
+     * Remembers that an image cannot be decoded, so it is served in its original form without decoding it again.
+     *
+     * @param imageKey the content hash of the image
+     */
+    private void markUndecodable(String imageKey) {
+        try {
+            imageStorageService.storeVariant(imageKey, UNDECODABLE_VARIANT, InputStream.nullInputStream());
+        } catch (IOException e) {
+            logger.warn("Image {} could not be marked as undecodable", imageKey, e);
+        }
+    }
+
+    /**
+     * Decodes a stored image, subsampling large images while reading so the decoded raster stays small.
+     *
+     * @param imageKey the content hash of the image
+     * @param targetDimension the largest thumbnail dimension the decoded image will be scaled to
+     * @return the decoded image, or null if the image cannot be decoded, in which case it is marked as undecodable
+     */
+    private BufferedImage decode(String imageKey, int targetDimension) {
+        try (InputStream content = imageStorageService.open(imageKey);
+             ImageInputStream input = new MemoryCacheImageInputStream(content)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                logger.warn("Image {} has an unsupported format, serving it without thumbnails", imageKey);
+                markUndecodable(imageKey);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, longestSide / (targetDimension * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            logger.warn("Image {} could not be decoded, serving it without thumbnails", imageKey, e);
+            markUndecodable(imageKey);
+            return null;
+        }
+    }
+
+    /**
+     * Scales an image to fit the given rendition and stores it as a JPEG variant.
+     *
+     * @param imageKey the content hash of the original image
+     * @param original the decoded original image
+     * @param size the rendition to create
+     * @return the storage key of the rendition
+     */
+    private String writeThumbnail(String imageKey, BufferedImage original, ImageSize size) {
+        double scale = Math.min(1.0, (double) size.getMaxDimension() / Math.max(original.getWidth(), original.getHeight()));
+        int width = Math.max(1, (int) Math.round(original.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(original.getHeight() * scale));
+
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(original, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = new MemoryCacheImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(thumbnail, null, null), param);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writer.dispose();
+        }
+
+        try {
+            return imageStorageService.storeVariant(imageKey, size.variantName(), new ByteArrayInputStream(out.toByteArray()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.AstroTrack.service.Impl;
+
+import com.example.AstroTrack.service.TokenCacheService;
+import com.example.AstroTrack.utils.DigestUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of the TokenCacheService interface backed by a bounded Caffeine cache.
+ * Tokens are keyed by their SHA-256 digest, so the cache never holds usable tokens, and every entry expires
+ * together with its token. Hits, misses and evictions are published as the verifiedTokens cache metrics.
+ */
+@Service
+public class TokenCacheServiceImpl implements TokenCacheService {
+
+    @Value("${astrotrack.token-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    private Cache<String, VerifiedToken> cache;
+
+    /**
+     * Creates the cache and registers its metrics.
+     */
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(Metrics.globalRegistry, cache, "verifiedTokens");
+    }
+
+    /**
+     * Finds the principal of a verified token.
+     *
+     * @param token the JWT token
+     * @return the principal the token was verified for, or null if the token is not cached
+     */
+    public UserDetails get(String token) {
+        VerifiedToken verifiedToken = cache.getIfPresent(DigestUtil.tokenDigest(token));
+        return verifiedToken != null ? verifiedToken.principal() : null;
+    }
+
+    /**
+     * Remembers a verified token until it expires.
+     *
+     * @param token the JWT token
+     * @param principal the principal the token was verified for
+     * @param expiration the expiration of the token
+     */
+    public void put(String token, UserDetails principal, Date expiration) {
+        if (expiration.getTime() > System.currentTimeMillis()) {
+            cache.put(DigestUtil.tokenDigest(token), new VerifiedToken(principal, expiration.getTime()));
+        }
+    }
+
+    /**
+     * Forgets a token, so the next request with it is verified again.
+     *
+     * @param token the JWT token
+     */
+    public void evict(String token) {
+        evictDigest(DigestUtil.tokenDigest(token));
+    }
+
+    /**
+     * Forgets a token by its digest, for tokens revoked on another instance.
+     *
+     * @param tokenDigest the digest of the token, as computed by DigestUtil.tokenDigest
+     */
+    public void evictDigest(String tokenDigest) {
+        cache.invalidate(tokenDigest);
+    }
+
+
+    /**
+     * Principal of a verified token and the time the token expires, in milliseconds since the epoch.
+     */
+    private record VerifiedToken(UserDetails principal, long expiresAt) {
+    }
+
+    /**
+     * Expires every entry at the expiration of its token.
+     */
+    private static final class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.expiresAt() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
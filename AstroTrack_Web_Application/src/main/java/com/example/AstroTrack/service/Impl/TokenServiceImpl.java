@@ -1,37 +1,189 @@
 package com.example.AstroTrack.service.Impl;
 
+import com.example.AstroTrack.dto.InvalidationEventDto;
+import com.example.AstroTrack.service.InvalidationBusService;
+import com.example.AstroTrack.service.TokenCacheService;
 import com.example.AstroTrack.service.TokenService;
+import com.example.AstroTrack.utils.DigestUtil;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.nio.ByteBuffer;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Implementation of the TokenService interface for managing token blacklisting.
+ * Blacklisted tokens are kept by their SHA-256 digest together with their expiration, and are dropped once they
+ * expire. A fixed size Bloom filter in front of the map answers most checks, since most tokens were never
+ * blacklisted; it is rebuilt from the remaining tokens whenever expired tokens are purged, so it does not fill up.
+ * Every blacklisted token is broadcast over the invalidation bus, so all instances reject it.
  */
 @Service
 public class TokenServiceImpl implements TokenService {
 
-    private Set<String> blacklist = new HashSet<>();
+    private static final int FILTER_BITS = 1 << 17;
+
+    private static final int FILTER_HASHES = 3;
+
+    @Autowired
+    TokenCacheService tokenCacheService;
+
+    @Autowired
+    InvalidationBusService invalidationBusService;
+
+    private final Map<String, Long> blacklist = new ConcurrentHashMap<>();
+
+    private volatile RevocationFilter filter = new RevocationFilter();
+
+    private volatile RevocationFilter previousFilter;
+
+    /**
+     * Creates the service and publishes the number of blacklisted tokens.
+     */
+    public TokenServiceImpl() {
+        Metrics.gauge("astrotrack.token.blacklist.size", blacklist, Map::size);
+    }
 
     /**
-     * Adds a token to the blacklist.
+     * Applies the tokens blacklisted on any instance.
+     */
+    @PostConstruct
+    public void init() {
+        invalidationBusService.subscribe(this::onInvalidation);
+    }
+
+    /**
+     * Adds a token to the blacklist until the longest time an access token can stay valid has passed,
+     * and forgets it if it was verified before.
      *
      * @param token the token to blacklist
      */
     public void blacklistToken(String token) {
+        blacklistToken(token, new Date(System.currentTimeMillis() + JwtServiceImpl.ACCESS_TOKEN_LIFETIME.toMillis()));
+    }
 
-        blacklist.add(token);
+    /**
+     * Adds a token to the blacklist until the token expires, forgets it if it was verified before, and broadcasts
+     * it to the other instances.
+     *
+     * @param token the token to blacklist
+     * @param expiration the expiration of the token
+     */
+    public void blacklistToken(String token, Date expiration) {
+        String tokenDigest = DigestUtil.tokenDigest(token);
+        revoke(tokenDigest, expiration.getTime());
+        invalidationBusService.publish(InvalidationEventDto.tokenRevoked(tokenDigest, expiration.getTime()));
     }
 
     /**
      * Checks if a token is blacklisted.
+     * While the filter is being rebuilt the previous filter is consulted as well, so no blacklisted token is missed.
      *
      * @param token the token to check
-     * @return true if the token is blacklisted, false otherwise
+     * @return true if the token is blacklisted and has not expired, false otherwise
      */
     public boolean isTokenBlacklisted(String token) {
+        byte[] digest = DigestUtil.sha256(token);
+        RevocationFilter current = filter;
+        RevocationFilter previous = previousFilter;
+        if (!current.mightContain(digest) && (previous == null || !previous.mightContain(digest))) {
+            return false;
+        }
+        String key = DigestUtil.encode(digest);
+        Long expiresAt = blacklist.get(key);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt <= System.currentTimeMillis()) {
+            blacklist.remove(key, expiresAt);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Drops the blacklisted tokens that have expired and rebuilds the filter from the remaining ones.
+     * The new filter is published before it is filled, and the previous one stays in use until it is complete.
+     *
+     * @return the number of tokens dropped
+     */
+    @Scheduled(fixedDelayString = "${astrotrack.token-blacklist.purge-interval:PT5M}")
+    public synchronized int purgeExpiredTokens() {
+        long now = System.currentTimeMillis();
+        int purged = 0;
+        for (Map.Entry<String, Long> entry : blacklist.entrySet()) {
+            if (entry.getValue() <= now && blacklist.remove(entry.getKey(), entry.getValue())) {
+                purged++;
+            }
+        }
+        previousFilter = filter;
+        RevocationFilter rebuilt = new RevocationFilter();
+        filter = rebuilt;
+        for (String key : blacklist.keySet()) {
+            rebuilt.add(DigestUtil.decode(key));
+        }
+        previousFilter = null;
+        return purged;
+    }
+
+    /**
+     * Adds a token to the blacklist by its digest and forgets it if it was verified before.
+     * The token is added to the map before the filter, so a check that passes the filter always finds it.
+     *
+     * @param tokenDigest the digest of the token
+     * @param expiresAt the time the token expires, in milliseconds since the epoch
+     */
+    private void revoke(String tokenDigest, long expiresAt) {
+        if (expiresAt > System.currentTimeMillis()) {
+            blacklist.merge(tokenDigest, expiresAt, Math::max);
+            filter.add(DigestUtil.decode(tokenDigest));
+        }
+        tokenCacheService.evictDigest(tokenDigest);
+    }
+
+    /**
+     * Applies a token revocation broadcast by any instance, including this one.
+     *
+     * @param event the invalidation
+     */
+    private void onInvalidation(InvalidationEventDto event) {
+        if (event.type() == InvalidationEventDto.Type.TOKEN_REVOKED) {
+            revoke(event.name(), event.expiresAt());
+        }
+    }
+
+    /**
+     * Bloom filter over token digests. The digests are uniformly distributed, so their leading bytes are used
+     * as the hash values directly.
+     */
+    private static final class RevocationFilter {
+
+        private final AtomicLongArray bits = new AtomicLongArray(FILTER_BITS / Long.SIZE);
+
+        void add(byte[] digest) {
+            ByteBuffer buffer = ByteBuffer.wrap(digest);
+            for (int i = 0; i < FILTER_HASHES; i++) {
+                int bit = Math.floorMod(buffer.getInt(i * Integer.BYTES), FILTER_BITS);
+                long mask = 1L << bit;
+                bits.getAndAccumulate(bit / Long.SIZE, mask, (word, m) -> word | m);
+            }
+        }
 
-        return blacklist.contains(token);
+        boolean mightContain(byte[] digest) {
+            ByteBuffer buffer = ByteBuffer.wrap(digest);
+            for (int i = 0; i < FILTER_HASHES; i++) {
+                int bit = Math.floorMod(buffer.getInt(i * Integer.BYTES), FILTER_BITS);
+                if ((bits.get(bit / Long.SIZE) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
 }
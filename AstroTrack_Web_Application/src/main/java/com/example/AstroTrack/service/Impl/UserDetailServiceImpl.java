@@ -1,38 +1,97 @@
 package com.example.AstroTrack.service.Impl;
 
+import com.example.AstroTrack.dto.InvalidationEventDto;
 import com.example.AstroTrack.entity.Users;
 import com.example.AstroTrack.repository.UserRepository;
 
+import com.example.AstroTrack.config.CacheConfig;
 import com.example.AstroTrack.config.UserDetailsImpl;
+import com.example.AstroTrack.service.InvalidationBusService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 /**
- * Service implementation for loading user details by username.
+ * Service implementation for loading user details by username, and for storing password hashes upgraded on login.
  */
 @Service
-public class UserDetailServiceImpl implements UserDetailsService {
+public class UserDetailServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepo;
 
+    @Autowired
+    private ObjectProvider<CacheManager> cacheManager;
+
+    @Autowired
+    private InvalidationBusService invalidationBusService;
+
+    /**
+     * Clears the cached user details whenever any instance writes a user.
+     */
+    @PostConstruct
+    public void init() {
+        invalidationBusService.subscribe(this::onInvalidation);
+    }
+
     /**
      * Loads user details by username.
+     * Details are cached until the user changes; unknown usernames are not cached.
      *
      * @param username the username of the user
      * @return the UserDetails object
      * @throws UsernameNotFoundException if the user is not found
      */
     @Override
+    @Cacheable(cacheNames = CacheConfig.USERS_CACHE)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        System.out.println(username);
         Users user = userRepo.findUserByUsername(username);
         if (user == null) {
             throw new UsernameNotFoundException("User not found with username " + username);
         }
         return UserDetailsImpl.build(user);
     }
+
+    /**
+     * Stores a password hash that was upgraded after a successful login.
+     * Saving the user evicts the cached user details on every instance.
+     *
+     * @param user the authenticated user
+     * @param newPassword the upgraded password hash
+     * @return the user details with the upgraded hash
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Users stored = userRepo.findUserByUsername(user.getUsername());
+        if (stored == null) {
+            return user;
+        }
+        stored.setPassword(newPassword);
+        userRepo.save(stored);
+        return UserDetailsImpl.build(stored);
+    }
+
+    /**
+     * Applies a user details cache eviction broadcast by any instance, including this one.
+     *
+     * @param event the invalidation
+     */
+    private void onInvalidation(InvalidationEventDto event) {
+        if (event.type() != InvalidationEventDto.Type.CACHE_EVICTED || !CacheConfig.USERS_CACHE.equals(event.name())) {
+            return;
+        }
+        CacheManager manager = cacheManager.getIfAvailable();
+        Cache cache = manager != null ? manager.getCache(CacheConfig.USERS_CACHE) : null;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
 }
@@ -0,0 +1,27 @@
+package com.example.AstroTrack.service;
+
+import com.example.AstroTrack.dto.InvalidationEventDto;
+
+import java.util.function.Consumer;
+
+/**
+ * Service interface for broadcasting token revocations and cache evictions to every application instance.
+ * Events are delivered to all subscribers, including those of the publishing instance, so handlers must be
+ * idempotent. Delivery is best effort: an instance that is disconnected when an event is published misses it.
+ */
+public interface InvalidationBusService {
+
+    /**
+     * Broadcasts an invalidation to every instance.
+     *
+     * @param event the invalidation
+     */
+    public void publish(InvalidationEventDto event);
+
+    /**
+     * Registers a handler for the invalidations published by any instance.
+     *
+     * @param subscriber the handler, called once per event
+     */
+    public void subscribe(Consumer<InvalidationEventDto> subscriber);
+}
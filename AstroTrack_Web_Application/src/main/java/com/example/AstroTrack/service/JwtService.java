@@ -1,8 +1,10 @@
 package com.example.AstroTrack.service;
 
 import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.function.Function;
 
@@ -11,6 +13,14 @@ import java.util.function.Function;
  */
 public interface JwtService {
 
+    /**
+     * Parses the given JWT token and verifies its signature and expiration.
+     *
+     * @param token the JWT token
+     * @return the claims of the token
+     */
+    public Claims parseToken(String token);
+
     /**
      * Extracts the username from the given JWT token.
      *
@@ -46,6 +56,33 @@ public interface JwtService {
      */
     public Boolean validateToken(String token, UserDetails userDetails);
 
+    /**
+     * Validates an already parsed JWT token against the provided user details, without parsing it again.
+     *
+     * @param claims the claims of the token
+     * @param token the JWT token
+     * @param userDetails the user details
+     * @return true if the token is valid, false otherwise
+     */
+    public Boolean validateToken(Claims claims, String token, UserDetails userDetails);
+
+    /**
+     * Validates an already parsed JWT token on its own, without consulting the user it was issued to.
+     *
+     * @param claims the claims of the token
+     * @param token the JWT token
+     * @return true if the token is neither expired nor blacklisted, false otherwise
+     */
+    public Boolean validateToken(Claims claims, String token);
+
+    /**
+     * Extracts the authorities embedded in a parsed JWT token.
+     *
+     * @param claims the claims of the token
+     * @return the granted authorities, empty if the token carries none
+     */
+    public Collection<GrantedAuthority> extractAuthorities(Claims claims);
+
     /**
      * Generates a JWT token for the given username.
      *
@@ -53,4 +90,12 @@ public interface JwtService {
      * @return the generated JWT token
      */
     public String generateToken(String username);
+
+    /**
+     * Generates a JWT token for the given user, embedding the user's authorities as the roles claim.
+     *
+     * @param userDetails the user details
+     * @return the generated JWT token
+     */
+    public String generateToken(UserDetails userDetails);
 }
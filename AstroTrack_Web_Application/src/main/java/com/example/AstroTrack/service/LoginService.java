@@ -0,0 +1,21 @@
+package com.example.AstroTrack.service;
+
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service interface for verifying login credentials off the request threads.
+ */
+public interface LoginService {
+
+    /**
+     * Verifies the credentials of a user on the bounded login executor.
+     *
+     * @param username the username
+     * @param password the password
+     * @return a future completed with the authentication, or completed exceptionally if the credentials are invalid
+     * @throws com.example.AstroTrack.exception.TooManyLoginAttemptsException if the login queue is full
+     */
+    public CompletableFuture<Authentication> authenticate(String username, String password);
+}
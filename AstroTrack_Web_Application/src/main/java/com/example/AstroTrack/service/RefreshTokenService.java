@@ -1,8 +1,8 @@
 package com.example.AstroTrack.service;
 
-import com.example.AstroTrack.entity.RefreshToken;
-
-import java.util.Optional;
+import com.example.AstroTrack.config.UserDetailsImpl;
+import com.example.AstroTrack.dto.IssuedRefreshTokenDto;
+import com.example.AstroTrack.dto.RefreshTokenRequestDto;
 
 /**
  * Service interface for managing refresh tokens.
@@ -10,18 +10,36 @@ import java.util.Optional;
 public interface RefreshTokenService {
 
     /**
-     * Finds a refresh token by its token string.
+     * Creates a new refresh token for a user who has just been authenticated.
+     * The user is referenced by the identifier of the authenticated principal and is not loaded again.
+     *
+     * @param userDetails the authenticated user
+     * @return the created refresh token
+     */
+    public IssuedRefreshTokenDto createRefreshToken(UserDetailsImpl userDetails);
+
+    /**
+     * Replaces a refresh token with a new one for the same user and the same expiry date.
+     * Every refresh token can be used only once.
+     *
+     * @param token the refresh token sent by the client
+     * @return the refresh token that replaces it
+     * @throws RuntimeException if the token is unknown, was already used or has expired
+     */
+    public IssuedRefreshTokenDto rotateRefreshToken(String token);
+
+    /**
+     * Deletes a refresh token.
      *
-     * @param token the token string
-     * @return an optional containing the found refresh token
+     * @param token the refresh token to delete
+     * @throws RuntimeException if the token is not found
      */
-    public Optional<RefreshToken> findByToken(String token);
+    public void deleteToken(RefreshTokenRequestDto token);
 
     /**
-     * Creates a new refresh token for a specific user.
+     * Deletes the refresh tokens that have expired.
      *
-     * @param username the username of the user
-     * @return an optional containing the created refresh token
+     * @return the number of deleted tokens
      */
-    public Optional<RefreshToken> createRefreshToken(String username);
+    public int purgeExpiredTokens();
 }
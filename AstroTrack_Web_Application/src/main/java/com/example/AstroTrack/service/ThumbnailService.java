@@ -0,0 +1,44 @@
+package com.example.AstroTrack.service;
+
+import com.example.AstroTrack.dto.ImageSize;
+
+/**
+ * Service interface for generating and resolving thumbnails of client images.
+ */
+public interface ThumbnailService {
+
+    /**
+     * Generates all thumbnail renditions of a stored image.
+     *
+     * @param imageKey the content hash of the original image
+     */
+    public void generateThumbnails(String imageKey);
+
+    /**
+     * Resolves the storage key of an image rendition, generating the thumbnail first if it is missing.
+     * Falls back to the original image when it cannot be decoded for thumbnailing.
+     *
+     * @param imageKey the content hash of the original image
+     * @param size the requested rendition
+     * @return the storage key of the rendition
+     */
+    public String resolve(String imageKey, ImageSize size);
+
+    /**
+     * Detects the media type of a stored original image from its content.
+     *
+     * @param imageKey the content hash of the original image
+     * @return the media type of the image
+     */
+    public String detectContentType(String imageKey);
+
+    /**
+     * Determines the media type of a stored image rendition.
+     *
+     * @param imageKey the content hash of the original image
+     * @param renditionKey the storage key of the rendition
+     * @param originalContentType the recorded media type of the original image, or null if it was not recorded
+     * @return the media type of the rendition
+     */
+    public String contentType(String imageKey, String renditionKey, String originalContentType);
+}
@@ -0,0 +1,43 @@
+package com.example.AstroTrack.service;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+
+/**
+ * Service interface for remembering access tokens that have already been verified, so repeated requests with the
+ * same token skip signature verification and the user lookup.
+ */
+public interface TokenCacheService {
+
+    /**
+     * Finds the principal of a verified token.
+     *
+     * @param token the JWT token
+     * @return the principal the token was verified for, or null if the token is not cached
+     */
+    public UserDetails get(String token);
+
+    /**
+     * Remembers a verified token until it expires.
+     *
+     * @param token the JWT token
+     * @param principal the principal the token was verified for
+     * @param expiration the expiration of the token
+     */
+    public void put(String token, UserDetails principal, Date expiration);
+
+    /**
+     * Forgets a token, so the next request with it is verified again.
+     *
+     * @param token the JWT token
+     */
+    public void evict(String token);
+
+    /**
+     * Forgets a token by its digest, for tokens revoked on another instance.
+     *
+     * @param tokenDigest the digest of the token, as computed by DigestUtil.tokenDigest
+     */
+    public void evictDigest(String tokenDigest);
+}
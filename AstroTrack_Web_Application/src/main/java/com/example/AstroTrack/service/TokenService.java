@@ -1,17 +1,27 @@
 package com.example.AstroTrack.service;
 
+import java.util.Date;
+
 /**
  * Service interface for managing token blacklisting.
  */
 public interface TokenService {
 
     /**
-     * Adds a token to the blacklist.
+     * Adds a token to the blacklist until the longest time an access token can stay valid has passed.
      *
      * @param token the token to blacklist
      */
     void blacklistToken(String token);
 
+    /**
+     * Adds a token to the blacklist until the token expires.
+     *
+     * @param token the token to blacklist
+     * @param expiration the expiration of the token
+     */
+    void blacklistToken(String token, Date expiration);
+
     /**
      * Checks if a token is blacklisted.
      *
@@ -19,4 +29,11 @@ public interface TokenService {
      * @return true if the token is blacklisted, false otherwise
      */
     boolean isTokenBlacklisted(String token);
+
+    /**
+     * Drops the blacklisted tokens that have expired, since an expired token is rejected anyway.
+     *
+     * @return the number of tokens dropped
+     */
+    int purgeExpiredTokens();
 }
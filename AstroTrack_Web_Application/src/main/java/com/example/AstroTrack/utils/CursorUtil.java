@@ -0,0 +1,59 @@
+package com.example.AstroTrack.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Utility class for encoding and decoding opaque keyset pagination cursors.
+ * Null sort key values are kept apart from every string, including "null", so they survive the round trip.
+ */
+public class CursorUtil {
+
+    private static final String SEPARATOR = "\u001F";
+
+    private static final String NULL = "\u0000";
+
+    /**
+     * Encodes the sort key of the last returned row into an opaque cursor.
+     *
+     * @param parts the sort key values, in sort order, may contain null
+     * @return the URL safe cursor
+     */
+    public static String encode(Object... parts) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                sb.append(SEPARATOR);
+            }
+            sb.append(parts[i] == null ? NULL : parts[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor into the sort key values it was created from.
+     *
+     * @param cursor the cursor to decode
+     * @param expectedParts the number of sort key values the cursor must contain
+     * @return the sort key values, in sort order, null where the encoded value was null
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static String[] decode(String cursor, int expectedParts) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+        String[] parts = decoded.split(SEPARATOR, -1);
+        if (parts.length != expectedParts) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        for (int i = 0; i < parts.length; i++) {
+            if (NULL.equals(parts[i])) {
+                parts[i] = null;
+            }
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.AstroTrack.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Utility class for computing digests of tokens, so tokens can be looked up without being kept in memory.
+ */
+public class DigestUtil {
+
+    /**
+     * Computes the SHA-256 digest of a text.
+     *
+     * @param text the text to digest, encoded as UTF-8
+     * @return the 32 byte digest
+     */
+    public static byte[] sha256(String text) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Computes the digest a token is looked up by.
+     *
+     * @param token the token
+     * @return the URL safe Base64 encoded SHA-256 digest of the token
+     */
+    public static String tokenDigest(String token) {
+        return encode(sha256(token));
+    }
+
+    /**
+     * Encodes a digest as text.
+     *
+     * @param digest the digest
+     * @return the URL safe Base64 encoded digest, without padding
+     */
+    public static String encode(byte[] digest) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    /**
+     * Decodes a digest encoded by {@link #encode(byte[])}.
+     *
+     * @param digest the encoded digest
+     * @return the digest
+     */
+    public static byte[] decode(String digest) {
+        return Base64.getUrlDecoder().decode(digest);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.AstroTrack.utils;
 
 import com.example.AstroTrack.dto.ApiResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -22,6 +23,20 @@ public class ResponseUtil {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    /**
+     * Creates a success response entity with additional response headers.
+     *
+     * @param data the data to include in the response
+     * @param message the message to include in the response
+     * @param headers the headers to add to the response
+     * @param <T> the type of the data
+     * @return the response entity containing the success message, data and headers
+     */
+    public static <T> ResponseEntity<ApiResponse<T>> success(T data, String message, HttpHeaders headers) {
+        ApiResponse<T> response = new ApiResponse<>(data, HttpStatus.OK.value(), message);
+        return new ResponseEntity<>(response, headers, HttpStatus.OK);
+    }
+
     /**
      * Creates a delete response entity.
      *
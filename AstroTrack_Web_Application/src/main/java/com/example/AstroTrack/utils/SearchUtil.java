@@ -0,0 +1,30 @@
+package com.example.AstroTrack.utils;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class for normalizing text before it is indexed or searched.
+ */
+public class SearchUtil {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * Normalizes text for case and accent insensitive matching.
+     * Diacritics are stripped, the text is lower cased and runs of whitespace are collapsed to a single space.
+     *
+     * @param text the text to normalize, may be null
+     * @return the normalized text, empty if the text is null
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(decomposed.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.AstroTrack.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical reads: while a computation for a key is running, callers asking for the same key
+ * wait for it and share its result or exception instead of running their own.
+ * Results are not kept once the computation ends, so a caller only ever gets a result that was computed while it
+ * was waiting. Callers inside a transaction always compute their own result, as they may see uncommitted writes.
+ * The number of computations saved is counted by the astrotrack.single.flight.saved metric.
+ *
+ * @param <K> the type of the keys, which must implement equals and hashCode
+ * @param <V> the type of the results, which must be safe to share between threads
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+
+    private final LongAdder savedCount = new LongAdder();
+
+    private final Counter saved;
+
+    /**
+     * Creates a single-flight group.
+     *
+     * @param name the name of the coalesced call, used as the call tag of the metric
+     */
+    public SingleFlight(String name) {
+        this.saved = Metrics.counter("astrotrack.single.flight.saved", "call", name);
+    }
+
+    /**
+     * Returns the result for a key, joining the computation already running for it if there is one.
+     *
+     * @param key the key of the computation
+     * @param loader the computation to run if none is running for the key
+     * @return the result of the computation
+     */
+    public V execute(K key, Supplier<V> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.get();
+        }
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = flights.putIfAbsent(key, flight);
+        if (running != null) {
+            savedCount.increment();
+            saved.increment();
+            return await(running);
+        }
+        try {
+            V result = loader.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * Returns the number of computations saved by joining a running one.
+     *
+     * @return the number of saved computations
+     */
+    public long getSavedCount() {
+        return savedCount.sum();
+    }
+
+    /**
+     * Waits for a running computation and rethrows its exception unchanged.
+     *
+     * @param flight the running computation
+     * @param <V> the type of the result
+     * @return the result of the computation
+     */
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
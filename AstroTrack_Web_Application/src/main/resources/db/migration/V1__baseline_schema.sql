@@ -0,0 +1,48 @@
+-- Schema as created by Hibernate from the original entities, before migrations were introduced.
+-- Existing databases are baselined at this version and skip this script, so it must stay exactly that schema;
+-- every later change goes into its own migration.
+
+CREATE TABLE client (
+    age                    integer      NOT NULL,
+    is_deleted             boolean      NOT NULL,
+    date_and_time_of_birth timestamp(6),
+    id                     bigint GENERATED BY DEFAULT AS IDENTITY,
+    image                  oid,
+    name                   varchar(255),
+    phone_number           varchar(255),
+    place_of_birth         varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE consultation (
+    due_amount        float(53),
+    is_deleted        boolean      NOT NULL,
+    price             float(53),
+    client_id         bigint,
+    consultation_date timestamp(6),
+    id                bigint GENERATED BY DEFAULT AS IDENTITY,
+    next_appointment  timestamp(6),
+    notes             varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE users (
+    id       bigint NOT NULL,
+    password varchar(255),
+    username varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE refresh_token (
+    id          integer GENERATED BY DEFAULT AS IDENTITY,
+    expiry_date timestamp(6),
+    user_id     bigint UNIQUE,
+    token       varchar(255),
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE consultation
+    ADD CONSTRAINT fkauund9ecrqq496j0rmg6lbq08 FOREIGN KEY (client_id) REFERENCES client;
+
+ALTER TABLE refresh_token
+    ADD CONSTRAINT fkjtx87i0jvq2svedphegvdwcuy FOREIGN KEY (user_id) REFERENCES users;
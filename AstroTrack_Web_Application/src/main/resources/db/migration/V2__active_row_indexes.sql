@@ -0,0 +1,18 @@
+-- Every read filters out soft-deleted rows, so the indexes only cover rows that are not marked as deleted.
+
+-- Consultations of a client in chronological order: consultation list, client detail page and balance,
+-- and the per-client ledger computation.
+CREATE INDEX IF NOT EXISTS idx_consultation_active_client_date
+    ON consultation (client_id, consultation_date, id) WHERE NOT is_deleted;
+
+-- Half-open date ranges of the financial series.
+CREATE INDEX IF NOT EXISTS idx_consultation_active_date
+    ON consultation (consultation_date) WHERE NOT is_deleted;
+
+-- Keyset pagination of clients by name.
+CREATE INDEX IF NOT EXISTS idx_client_active_name_id
+    ON client (name, id) WHERE NOT is_deleted;
+
+DROP INDEX IF EXISTS idx_consultation_client_id_id;
+DROP INDEX IF EXISTS idx_consultation_date;
+DROP INDEX IF EXISTS idx_client_name_id;
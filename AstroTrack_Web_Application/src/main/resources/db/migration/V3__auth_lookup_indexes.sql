@@ -0,0 +1,6 @@
+-- Lookups of the authentication path: users by username on login and on every authenticated request,
+-- refresh tokens by token value on refresh.
+
+CREATE INDEX IF NOT EXISTS idx_users_username ON users (username);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_token_token ON refresh_token (token);
@@ -0,0 +1,5 @@
+-- Users are looked up by their exact username, which must identify a single user.
+
+DROP INDEX IF EXISTS idx_users_username;
+
+ALTER TABLE users ADD CONSTRAINT uk_users_username UNIQUE (username);
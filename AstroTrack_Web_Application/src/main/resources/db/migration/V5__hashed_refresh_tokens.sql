@@ -0,0 +1,38 @@
+-- Refresh tokens are stored as the URL safe Base64 SHA-256 digest of the token, so the table alone grants no
+-- sessions. Existing tokens are digested in place and stay valid. A user may hold one token per signed in session,
+-- and expired tokens are swept in batches by expiry date.
+
+ALTER TABLE refresh_token ADD COLUMN token_hash varchar(64);
+
+UPDATE refresh_token
+SET token_hash = translate(rtrim(encode(sha256(convert_to(token, 'UTF8')), 'base64'), '='), '+/', '-_')
+WHERE token IS NOT NULL;
+
+DELETE FROM refresh_token WHERE token_hash IS NULL OR expiry_date IS NULL;
+
+ALTER TABLE refresh_token ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE refresh_token ALTER COLUMN expiry_date SET NOT NULL;
+
+DROP INDEX IF EXISTS idx_refresh_token_token;
+ALTER TABLE refresh_token DROP COLUMN token;
+
+ALTER TABLE refresh_token ADD CONSTRAINT uk_refresh_token_token_hash UNIQUE (token_hash);
+
+-- The unique constraint on user_id is named by PostgreSQL or by Hibernate, depending on how the schema was created
+DO $$
+DECLARE
+    user_constraint text;
+BEGIN
+    FOR user_constraint IN
+        SELECT c.conname
+        FROM pg_constraint c
+        JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attname = 'user_id'
+        WHERE c.conrelid = 'refresh_token'::regclass AND c.contype = 'u' AND c.conkey = ARRAY[a.attnum]
+    LOOP
+        EXECUTE format('ALTER TABLE refresh_token DROP CONSTRAINT %I', user_constraint);
+    END LOOP;
+END $$;
+
+CREATE INDEX idx_refresh_token_user_id ON refresh_token (user_id);
+
+CREATE INDEX idx_refresh_token_expiry_date ON refresh_token (expiry_date);
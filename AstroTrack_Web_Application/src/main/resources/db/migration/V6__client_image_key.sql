@@ -0,0 +1,5 @@
+-- Client images move from the client.image large object column into the content-addressed image store, and the
+-- client keeps the content hash of its image. The legacy column stays until LegacyClientImageMigration has copied
+-- every image into the store; it clears the column client by client.
+
+ALTER TABLE client ADD COLUMN IF NOT EXISTS image_key varchar(255);
@@ -0,0 +1,12 @@
+-- Pre-aggregated earnings and dues per month. The ledger starts empty and is built from the consultations by
+-- FinancialLedgerInitializer when the application starts.
+
+CREATE TABLE IF NOT EXISTS financial_ledger (
+    due_amount   numeric(19, 2) NOT NULL,
+    earnings     numeric(19, 2) NOT NULL,
+    ledger_month integer        NOT NULL,
+    ledger_year  integer        NOT NULL,
+    id           bigint GENERATED BY DEFAULT AS IDENTITY,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_financial_ledger_period UNIQUE (ledger_year, ledger_month)
+);
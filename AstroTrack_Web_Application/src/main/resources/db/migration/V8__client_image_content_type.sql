@@ -0,0 +1,4 @@
+-- The media type of a client's image is detected once when the image is stored, instead of on every request.
+-- Images stored before this migration have no media type recorded and are inspected when they are served.
+
+ALTER TABLE client ADD COLUMN IF NOT EXISTS image_content_type varchar(100);
@@ -0,0 +1,89 @@
+package com.example.AstroTrack.aspect;
+
+import com.example.AstroTrack.service.TokenService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that service calls are timed per method and that arguments are described without their contents.
+ */
+class LoggingAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final TokenService target = mock(TokenService.class);
+
+    private TokenService tokenService;
+
+    @BeforeEach
+    void setUp() {
+        LoggingAspect loggingAspect = new LoggingAspect();
+        ReflectionTestUtils.setField(loggingAspect, "meterRegistry", meterRegistry);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(loggingAspect);
+        tokenService = proxyFactory.getProxy();
+    }
+
+    @Test
+    void recordsEveryCallInTheHistogramOfItsMethod() {
+        when(target.isTokenBlacklisted("slow")).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return true;
+        });
+
+        assertTrue(tokenService.isTokenBlacklisted("slow"));
+        assertFalse(tokenService.isTokenBlacklisted("fast"));
+        assertFalse(tokenService.isTokenBlacklisted("fast"));
+
+        Timer timer = timer("isTokenBlacklisted", "none");
+        assertEquals(3, timer.count());
+        assertTrue(timer.max(TimeUnit.MILLISECONDS) >= 50);
+        assertTrue(timer.totalTime(TimeUnit.MILLISECONDS) < 1_000);
+    }
+
+    @Test
+    void recordsFailuresByException() {
+        doThrow(new IllegalStateException("unavailable")).when(target).blacklistToken(anyString());
+
+        assertThrows(IllegalStateException.class, () -> tokenService.blacklistToken("token"));
+
+        assertEquals(1, timer("blacklistToken", "IllegalStateException").count());
+        assertEquals(0, meterRegistry.find("astrotrack.service.method").tag("exception", "none").timers().size());
+    }
+
+    @Test
+    void describesArgumentsWithoutTheirContents() {
+        MockMultipartFile file = new MockMultipartFile("image", new byte[1024]);
+        List<Integer> ids = new ArrayList<>(List.of(1, 2));
+
+        String description = LoggingAspect.describe(new Object[]{file, "password", 5, new byte[3], ids, null});
+
+        assertEquals("[MultipartFile(1024 bytes), String(8 chars), 5, byte[3], ArrayList(2 elements), null]", description);
+    }
+
+    private Timer timer(String method, String exception) {
+        return meterRegistry.get("astrotrack.service.method")
+                .tag("class", "TokenService")
+                .tag("method", method)
+                .tag("exception", exception)
+                .timer();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.AstroTrack.config;
+
+import com.example.AstroTrack.service.Impl.JwtServiceImpl;
+import com.example.AstroTrack.service.Impl.TokenCacheServiceImpl;
+import com.example.AstroTrack.service.Impl.UserDetailServiceImpl;
+import com.example.AstroTrack.service.TokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies how the JWT filter authenticates requests in the database and stateless modes.
+ */
+class JwtFilterTest {
+
+    private final UserDetailsImpl admin = new UserDetailsImpl("akash", "hash", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+    private final JwtServiceImpl jwtService = new JwtServiceImpl();
+
+    private final TokenService tokenService = mock(TokenService.class);
+
+    private final UserDetailServiceImpl userDetailService = mock(UserDetailServiceImpl.class);
+
+    private JwtFilter jwtFilter;
+
+    @BeforeEach
+    void setUp() {
+        TokenCacheServiceImpl tokenCacheService = new TokenCacheServiceImpl();
+        ReflectionTestUtils.setField(tokenCacheService, "maximumSize", 100L);
+        tokenCacheService.init();
+        ReflectionTestUtils.setField(jwtService, "tokenService", tokenService);
+        jwtFilter = new JwtFilter();
+        ReflectionTestUtils.setField(jwtFilter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(jwtFilter, "userDetailsService", userDetailService);
+        ReflectionTestUtils.setField(jwtFilter, "tokenCacheService", tokenCacheService);
+        ReflectionTestUtils.setField(jwtFilter, "tokenService", tokenService);
+        when(userDetailService.loadUserByUsername("akash")).thenReturn(admin);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void statelessModeAuthenticatesFromClaimsAlone() throws Exception {
+        ReflectionTestUtils.setField(jwtFilter, "authMode", AuthMode.STATELESS);
+
+        Authentication authentication = filter(jwtService.generateToken(admin));
+
+        assertEquals("akash", authentication.getName());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), List.copyOf(authentication.getAuthorities()));
+        verify(userDetailService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void databaseModeLoadsTheUserOncePerToken() throws Exception {
+        ReflectionTestUtils.setField(jwtFilter, "authMode", AuthMode.DATABASE);
+        String token = jwtService.generateToken(admin);
+
+        filter(token);
+        SecurityContextHolder.clearContext();
+        Authentication authentication = filter(token);
+
+        assertEquals(admin, authentication.getPrincipal());
+        verify(userDetailService, times(1)).loadUserByUsername("akash");
+    }
+
+    @Test
+    void rejectsBlacklistedTokensInStatelessMode() throws Exception {
+        ReflectionTestUtils.setField(jwtFilter, "authMode", AuthMode.STATELESS);
+        String token = jwtService.generateToken(admin);
+        when(tokenService.isTokenBlacklisted(token)).thenReturn(true);
+
+        assertNull(filter(token));
+    }
+
+    private Authentication filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.AstroTrack.config;
+
+import com.example.AstroTrack.service.ImageStorageService;
+import com.example.AstroTrack.service.Impl.FileSystemImageStorageServiceImpl;
+import com.example.AstroTrack.service.Impl.ThumbnailServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Verifies that images still held in the legacy client.image column are copied into the image store, and that the
+ * migration can run any number of times.
+ * Runs against PostgreSQL in a container and is skipped when Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({LegacyClientImageMigration.class, FileSystemImageStorageServiceImpl.class, ThumbnailServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class LegacyClientImageMigrationTest {
+
+    private static final byte[] IMAGE = {1, 2, 3};
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @TempDir
+    static Path imageStore;
+
+    @DynamicPropertySource
+    static void imageStoreLocation(DynamicPropertyRegistry registry) {
+        registry.add("astrotrack.image-store.location", imageStore::toString);
+    }
+
+    @Autowired
+    LegacyClientImageMigration legacyClientImageMigration;
+
+    @Autowired
+    ImageStorageService imageStorageService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void copiesLegacyImagesIntoTheStoreOnce() throws Exception {
+        Long withImage = insertClient("Akash", IMAGE);
+        Long withSameImage = insertClient("Sita", IMAGE);
+        Long withoutImage = insertClient("Ravi", null);
+        String key = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(IMAGE));
+
+        legacyClientImageMigration.migrateLegacyImages();
+
+        assertEquals(key, imageKey(withImage));
+        assertEquals(key, imageKey(withSameImage));
+        assertNull(imageKey(withoutImage));
+        assertArrayEquals(IMAGE, imageStorageService.read(key));
+        assertEquals("application/octet-stream", jdbcTemplate.queryForObject(
+                "SELECT image_content_type FROM client WHERE id = ?", String.class, withImage));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM client WHERE image IS NOT NULL", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_largeobject_metadata", Integer.class));
+
+        legacyClientImageMigration.migrateLegacyImages();
+        Long addedLater = insertClient("Meera", new byte[]{4});
+        legacyClientImageMigration.migrateLegacyImages();
+
+        assertEquals(key, imageKey(withImage));
+        assertNull(imageKey(withoutImage));
+        assertArrayEquals(new byte[]{4}, imageStorageService.read(imageKey(addedLater)));
+    }
+
+    private Long insertClient(String name, byte[] image) {
+        if (image == null) {
+            return jdbcTemplate.queryForObject("INSERT INTO client (name, age, is_deleted) VALUES (?, 30, false) RETURNING id",
+                    Long.class, name);
+        }
+        return jdbcTemplate.queryForObject("INSERT INTO client (name, age, is_deleted, image) " +
+                "VALUES (?, 30, false, lo_from_bytea(0, ?)) RETURNING id", Long.class, name, image);
+    }
+
+    private String imageKey(Long id) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT image_key FROM client WHERE id = ?", id);
+        return (String) rows.get(0).get("image_key");
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.AstroTrack.controller;
+
+import com.example.AstroTrack.dto.ClientImageDto;
+import com.example.AstroTrack.dto.ImageSize;
+import com.example.AstroTrack.exception.GlobalExceptionHandler;
+import com.example.AstroTrack.exception.ImageNotFoundException;
+import com.example.AstroTrack.service.Impl.ClientServiceImpl;
+import com.example.AstroTrack.service.Impl.FileSystemImageStorageServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Path;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that client images are streamed with a strong ETag, that conditional requests are answered with 304, and
+ * that responses are only cached forever when the requested version matches the current image.
+ */
+class ClientImageControllerTest {
+
+    private static final byte[] IMAGE = {1, 2, 3, 4};
+
+    @TempDir
+    Path location;
+
+    private final ClientServiceImpl clientService = mock(ClientServiceImpl.class);
+
+    private String imageKey;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        FileSystemImageStorageServiceImpl imageStorageService = new FileSystemImageStorageServiceImpl();
+        ReflectionTestUtils.setField(imageStorageService, "location", location.toString());
+        imageStorageService.init();
+        imageKey = imageStorageService.store(new ByteArrayInputStream(IMAGE));
+        when(clientService.getClientImage(1L, ImageSize.ORIGINAL))
+                .thenReturn(new ClientImageDto(1L, "Akash", imageKey, imageKey, "image/png"));
+        when(clientService.getClientImage(2L, ImageSize.ORIGINAL))
+                .thenThrow(new ImageNotFoundException("Image for client with id 2 not found!"));
+
+        ClientController clientController = new ClientController();
+        ReflectionTestUtils.setField(clientController, "clientServiceImpl", clientService);
+        ReflectionTestUtils.setField(clientController, "imageStorageService", imageStorageService);
+        mockMvc = MockMvcBuilders.standaloneSetup(clientController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void streamsTheImageWithAStrongETag() throws Exception {
+        mockMvc.perform(get("/astrotrack/client/image/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + imageKey + "\""))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, String.valueOf(IMAGE.length)))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(content().bytes(IMAGE));
+    }
+
+    @Test
+    void answersMatchingETagsWithNotModified() throws Exception {
+        mockMvc.perform(get("/astrotrack/client/image/1").header(HttpHeaders.IF_NONE_MATCH, "\"" + imageKey + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+
+        mockMvc.perform(get("/astrotrack/client/image/1").header(HttpHeaders.IF_NONE_MATCH, "\"outdated\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(IMAGE));
+    }
+
+    @Test
+    void cachesForeverOnlyWhenTheVersionMatches() throws Exception {
+        mockMvc.perform(get("/astrotrack/client/image/1").param("v", imageKey))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, private, immutable"));
+
+        mockMvc.perform(get("/astrotrack/client/image/1").param("v", "outdated"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+    }
+
+    @Test
+    void answersMissingImagesWithNotFound() throws Exception {
+        mockMvc.perform(get("/astrotrack/client/image/2"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.AstroTrack.controller;
+
+import com.example.AstroTrack.exception.GlobalExceptionHandler;
+import com.example.AstroTrack.mapper.ClientMapper;
+import com.example.AstroTrack.repository.ClientRepositoryPagination;
+import com.example.AstroTrack.repository.projection.ClientSummaryView;
+import com.example.AstroTrack.service.Impl.ClientServiceImpl;
+import com.example.AstroTrack.utils.CursorUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that keyset pagination returns the cursor of the next slice in the response header, leaves it out on the
+ * last slice, and answers malformed cursors with 400.
+ */
+class ClientPaginationControllerTest {
+
+    private final ClientRepositoryPagination clientRepositoryPagination = mock(ClientRepositoryPagination.class);
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        ClientServiceImpl clientService = new ClientServiceImpl();
+        ReflectionTestUtils.setField(clientService, "clientRepositoryPagination", clientRepositoryPagination);
+        ReflectionTestUtils.setField(clientService, "clientMapper", new ClientMapper());
+        ClientController clientController = new ClientController();
+        ReflectionTestUtils.setField(clientController, "clientServiceImpl", clientService);
+        mockMvc = MockMvcBuilders.standaloneSetup(clientController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void returnsTheCursorOfTheNextSlice() throws Exception {
+        List<ClientSummaryView> clients = List.of(summary(1L, "Akash"), summary(2L, "Sita"));
+        when(clientRepositoryPagination.findAllAfterId(eq(0L), any()))
+                .thenReturn(new SliceImpl<>(clients, PageRequest.of(0, 10), true));
+
+        mockMvc.perform(get("/astrotrack/client/viewAllClients/0").param("sort", "id").param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ClientController.NEXT_CURSOR_HEADER, CursorUtil.encode(2L)))
+                .andExpect(jsonPath("$.data.length()").value(2));
+    }
+
+    @Test
+    void leavesTheCursorOutOnTheLastSlice() throws Exception {
+        List<ClientSummaryView> byId = List.of(summary(3L, "Ravi"));
+        List<ClientSummaryView> byName = List.of(summary(4L, "Sita"));
+        when(clientRepositoryPagination.findAllAfterId(eq(2L), any()))
+                .thenReturn(new SliceImpl<>(byId, PageRequest.of(0, 10), false));
+        when(clientRepositoryPagination.findAllSortedByNameAfter(eq("Ravi"), eq(3L), any()))
+                .thenReturn(new SliceImpl<>(byName, PageRequest.of(0, 10), false));
+        when(clientRepositoryPagination.findAllWithoutNameAfterId(eq(0L), any()))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 9), false));
+
+        mockMvc.perform(get("/astrotrack/client/viewAllClients/0").param("sort", "id").param("cursor", CursorUtil.encode(2L)))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ClientController.NEXT_CURSOR_HEADER));
+        mockMvc.perform(get("/astrotrack/client/viewAllClients/0").param("sort", "name").param("cursor", CursorUtil.encode("Ravi", 3L)))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ClientController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$.data.length()").value(1));
+    }
+
+    @Test
+    void answersMalformedCursorsWithBadRequest() throws Exception {
+        for (String cursor : List.of("not base64!", CursorUtil.encode("Akash", 7L), CursorUtil.encode("x"))) {
+            mockMvc.perform(get("/astrotrack/client/viewAllClients/0").param("sort", "id").param("cursor", cursor))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(get("/astrotrack/client/viewAllClients/0").param("sort", "name").param("cursor", CursorUtil.encode("Akash", "x")))
+                .andExpect(status().isBadRequest());
+        verify(clientRepositoryPagination, never()).findAllAfterId(anyLong(), any());
+    }
+
+    private static ClientSummaryView summary(Long id, String name) {
+        ClientSummaryView summary = mock(ClientSummaryView.class);
+        when(summary.getId()).thenReturn(id);
+        when(summary.getName()).thenReturn(name);
+        return summary;
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.AstroTrack.controller;
+
+import com.example.AstroTrack.config.SecurityConfig;
+import com.example.AstroTrack.dto.AuthRequestDto;
+import com.example.AstroTrack.dto.JwtResponseDto;
+import com.example.AstroTrack.entity.RefreshToken;
+import com.example.AstroTrack.entity.Users;
+import com.example.AstroTrack.exception.GlobalExceptionHandler;
+import com.example.AstroTrack.exception.TooManyLoginAttemptsException;
+import com.example.AstroTrack.repository.RefreshTokenRepository;
+import com.example.AstroTrack.repository.UserRepository;
+import com.example.AstroTrack.service.Impl.JwtServiceImpl;
+import com.example.AstroTrack.service.Impl.LocalInvalidationBusServiceImpl;
+import com.example.AstroTrack.service.Impl.LoginServiceImpl;
+import com.example.AstroTrack.service.Impl.RefreshTokenServiceImpl;
+import com.example.AstroTrack.service.Impl.UserDetailServiceImpl;
+import com.example.AstroTrack.service.LoginService;
+import com.example.AstroTrack.service.TokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that a login loads the user once, issues both tokens from the authenticated principal, and upgrades
+ * outdated password hashes.
+ * The components of the login path are wired by hand around mocked repositories, so the test counts the queries a
+ * login would run and measures the throughput of the path without the database.
+ */
+class LoginFlowTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginFlowTest.class);
+
+    private static final int BENCHMARK_LOGINS = 200;
+
+    private static final String LOGIN_REQUEST = "{\"username\":\"akash\",\"password\":\"password\"}";
+
+    private final PasswordEncoder passwordEncoder = passwordEncoder(4);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+
+    private final JwtServiceImpl jwtService = new JwtServiceImpl();
+
+    private Users user;
+
+    private LoginServiceImpl loginService;
+
+    private AuthController authController;
+
+    @BeforeEach
+    void setUp() {
+        user = new Users();
+        user.setId(1L);
+        user.setUsername("akash");
+        user.setPassword(passwordEncoder.encode("password"));
+        when(userRepository.findUserByUsername("akash")).thenReturn(user);
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(refreshTokenRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0, RefreshToken.class));
+
+        UserDetailServiceImpl userDetailService = new UserDetailServiceImpl();
+        ReflectionTestUtils.setField(userDetailService, "userRepo", userRepository);
+        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
+        authenticationProvider.setUserDetailsService(userDetailService);
+        authenticationProvider.setUserDetailsPasswordService(userDetailService);
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+        loginService = new LoginServiceImpl();
+        ReflectionTestUtils.setField(loginService, "authenticationManager", new ProviderManager(authenticationProvider));
+        ReflectionTestUtils.setField(loginService, "threads", 2);
+        ReflectionTestUtils.setField(loginService, "queueCapacity", 10);
+        loginService.init();
+
+        RefreshTokenServiceImpl refreshTokenService = new RefreshTokenServiceImpl();
+        ReflectionTestUtils.setField(refreshTokenService, "refreshTokenRepository", refreshTokenRepository);
+        ReflectionTestUtils.setField(refreshTokenService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(refreshTokenService, "invalidationBusService", new LocalInvalidationBusServiceImpl());
+        ReflectionTestUtils.setField(refreshTokenService, "maximumSize", 1000L);
+        refreshTokenService.init();
+        ReflectionTestUtils.setField(jwtService, "tokenService", mock(TokenService.class));
+
+        authController = new AuthController();
+        ReflectionTestUtils.setField(authController, "jwtService", jwtService);
+        ReflectionTestUtils.setField(authController, "loginService", loginService);
+        ReflectionTestUtils.setField(authController, "refreshTokenServiceImpl", refreshTokenService);
+        ReflectionTestUtils.setField(authController, "userDetailService", userDetailService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loginService.shutdown();
+    }
+
+    @Test
+    void loadsTheUserOnce() {
+        JwtResponseDto response = login("password");
+
+        assertEquals("akash", jwtService.extractUsername(response.getAccessToken()));
+        assertNotNull(response.getRefreshToken());
+        verify(userRepository, times(1)).findUserByUsername("akash");
+        verify(refreshTokenRepository, times(1)).save(any());
+    }
+
+    @Test
+    void issuesNoTokensForBadCredentials() {
+        CompletionException failure = assertThrows(CompletionException.class, () -> login("wrong"));
+
+        assertInstanceOf(BadCredentialsException.class, failure.getCause());
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void upgradesOutdatedHashesOnLogin() {
+        user.setPassword(passwordEncoder(4).encode("password").substring("{bcrypt}".length()));
+
+        login("password");
+
+        verify(userRepository).save(user);
+        assertTrue(user.getPassword().startsWith("{bcrypt}$2a$04$"));
+        assertTrue(passwordEncoder.matches("password", user.getPassword()));
+    }
+
+    @Test
+    void respondsCreatedOnceTheLoginCompletes() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(authController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        MvcResult result = mockMvc.perform(post("/astrotrack/auth/login").contentType(MediaType.APPLICATION_JSON).content(LOGIN_REQUEST))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.accessToken").isNotEmpty());
+    }
+
+    @Test
+    void rejectsLoginsBeyondTheQueueWithTooManyRequests() throws Exception {
+        LoginService saturated = mock(LoginService.class);
+        when(saturated.authenticate(anyString(), anyString())).thenThrow(new TooManyLoginAttemptsException("Too many login attempts"));
+        ReflectionTestUtils.setField(authController, "loginService", saturated);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(authController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        mockMvc.perform(post("/astrotrack/auth/login").contentType(MediaType.APPLICATION_JSON).content(LOGIN_REQUEST))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void measuresLoginThroughput() {
+        long start = System.nanoTime();
+        for (int i = 0; i < BENCHMARK_LOGINS; i++) {
+            login("password");
+        }
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        logger.info("{} logins in {} ms, {} logins per second at BCrypt strength 4",
+                BENCHMARK_LOGINS, elapsedMillis, BENCHMARK_LOGINS * 1000L / elapsedMillis);
+        verify(userRepository, times(BENCHMARK_LOGINS)).findUserByUsername("akash");
+        verify(refreshTokenRepository, times(BENCHMARK_LOGINS)).save(any());
+    }
+
+    private JwtResponseDto login(String password) {
+        return authController.authenticateAndGetToken(new AuthRequestDto("akash", password)).join();
+    }
+
+    private static PasswordEncoder passwordEncoder(int strength) {
+        SecurityConfig securityConfig = new SecurityConfig();
+        ReflectionTestUtils.setField(securityConfig, "bcryptStrength", strength);
+        return securityConfig.passwordEncoder();
+    }
+}
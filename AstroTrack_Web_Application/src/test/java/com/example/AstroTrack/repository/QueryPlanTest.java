@@ -0,0 +1,170 @@
+package com.example.AstroTrack.repository;
+
+import com.example.AstroTrack.entity.Client;
+import com.example.AstroTrack.entity.Consultation;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.Query;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that the consultation queries and the client keyset queries are answered through the partial indexes
+ * created by the migrations.
+ * Sequential scans are disabled for each test, so a plan only avoids the index if the query cannot use it.
+ * Runs against PostgreSQL in a container and is skipped when Docker is not available.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.AstroTrack.repository.QueryPlanTest$LastStatementInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    ClientRepository clientRepository;
+
+    @Autowired
+    ConsultationRepository consultationRepository;
+
+    @Autowired
+    ClientRepositoryPagination clientRepositoryPagination;
+
+    @Autowired
+    EntityManager entityManager;
+
+    private Long clientId;
+
+    @BeforeEach
+    void setUp() {
+        Client client = new Client("Akash Jagtap", 30, new Date(), "Pune", "9999999999", null);
+        client.setDeleted(false);
+        clientId = clientRepository.save(client).getId();
+        for (int i = 1; i <= 20; i++) {
+            Consultation consultation = new Consultation(new Date(), "Consultation " + i, 100.0, 10.0, null);
+            consultation.setClient(client);
+            consultation.setDeleted(i % 5 == 0);
+            consultationRepository.save(consultation);
+        }
+        entityManager.flush();
+        entityManager.createNativeQuery("ANALYZE").executeUpdate();
+        entityManager.createNativeQuery("SET LOCAL enable_seqscan = off").executeUpdate();
+    }
+
+    @Test
+    void consultationListUsesActiveClientDateIndex() {
+        String plan = explain(ConsultationRepository.class, "findAllByClient", Map.of("clientId", clientId));
+
+        assertUsesIndex(plan, "idx_consultation_active_client_date");
+    }
+
+    @Test
+    void clientDetailUsesActiveClientDateIndex() {
+        String plan = explain(ClientRepository.class, "findDetailWithConsultationPage",
+                Map.of("id", clientId, "offset", 5L, "limit", 5));
+
+        assertUsesIndex(plan, "idx_consultation_active_client_date");
+    }
+
+    @Test
+    void financialSeriesUsesActiveDateIndex() {
+        LocalDateTime start = LocalDateTime.now().minusMonths(1);
+        String plan = explain(ConsultationRepository.class, "findFinancialSeries",
+                Map.of("field", "month", "start", start, "end", start.plusMonths(2)));
+
+        assertUsesIndex(plan, "idx_consultation_active_date");
+    }
+
+    @Test
+    void clientLedgerPeriodsUseActiveClientDateIndex() {
+        String plan = explain(FinancialLedgerRepository.class, "computeClientPeriods", Map.of("clientId", clientId));
+
+        assertUsesIndex(plan, "idx_consultation_active_client_date");
+    }
+
+    @Test
+    void nameCursorStartsTheActiveNameIndexScanAtTheCursor() {
+        clientRepositoryPagination.findAllSortedByNameAfter("Akash", clientId, PageRequest.of(0, 10));
+        String plan = explainLastStatement("Akash", clientId, 11);
+
+        assertUsesIndex(plan, "idx_client_active_name_id");
+        assertTrue(plan.lines().anyMatch(line -> line.contains("Index Cond:") && line.contains("name")),
+                () -> "Expected the name cursor to be an index condition:\n" + plan);
+    }
+
+    /**
+     * Explains the last statement Hibernate prepared, with its parameters inlined in order.
+     *
+     * @param values the values of the statement's parameters, in order
+     * @return the query plan as text
+     */
+    private String explainLastStatement(Object... values) {
+        String[] parts = LastStatementInspector.sql.split("\\?", -1);
+        assertEquals(values.length + 1, parts.length, () -> "Unexpected parameters in " + LastStatementInspector.sql);
+        StringBuilder sql = new StringBuilder("EXPLAIN ").append(parts[0]);
+        for (int i = 0; i < values.length; i++) {
+            sql.append(values[i] instanceof String text ? "'" + text.replace("'", "''") + "'" : values[i]).append(parts[i + 1]);
+        }
+        List<?> lines = entityManager.createNativeQuery(sql.toString()).getResultList();
+        return lines.stream().map(Object::toString).collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Explains the native query declared on a repository method.
+     *
+     * @param repository the repository interface
+     * @param methodName the name of the query method
+     * @param parameters the values of the named parameters of the query
+     * @return the query plan as text
+     */
+    private String explain(Class<?> repository, String methodName, Map<String, Object> parameters) {
+        Method method = Arrays.stream(repository.getMethods())
+                .filter(candidate -> candidate.getName().equals(methodName))
+                .findFirst()
+                .orElseThrow();
+        jakarta.persistence.Query query = entityManager.createNativeQuery("EXPLAIN " + method.getAnnotation(Query.class).value());
+        parameters.forEach(query::setParameter);
+        List<?> lines = query.getResultList();
+        return lines.stream().map(Object::toString).collect(Collectors.joining("\n"));
+    }
+
+    private static void assertUsesIndex(String plan, String index) {
+        assertTrue(plan.contains(index), () -> "Expected the plan to use " + index + ":\n" + plan);
+    }
+
+    /**
+     * Remembers the last SQL statement Hibernate prepared, so JPQL queries can be explained as they are run.
+     */
+    public static class LastStatementInspector implements StatementInspector {
+
+        static volatile String sql;
+
+        @Override
+        public String inspect(String statement) {
+            sql = statement;
+            return statement;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.AstroTrack.repository;
+
+import com.example.AstroTrack.utils.DigestUtil;
+import jakarta.persistence.EntityManager;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.CoreMigrationType;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that the migrations build a schema the entities validate against, including the indexes of the hot paths,
+ * both on an empty database and on a database created by Hibernate before migrations were introduced.
+ * The context only starts if Hibernate validates every entity against the migrated schema.
+ * Runs against PostgreSQL in a container and is skipped when Docker is not available.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaMigrationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    Flyway flyway;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    void appliesAllMigrations() {
+        assertEquals(0, flyway.info().pending().length);
+        List<String> applied = Arrays.stream(flyway.info().applied()).map(MigrationInfo::getVersion).map(Object::toString).toList();
+        assertEquals(List.of("1", "2", "3", "4", "5", "6", "7", "8"), applied);
+    }
+
+    @Test
+    void createsHotPathIndexes() {
+        List<?> indexes = entityManager.createNativeQuery("SELECT indexname FROM pg_indexes WHERE schemaname = current_schema()")
+                .getResultList();
+
+        for (String index : List.of("idx_consultation_active_client_date", "idx_consultation_active_date",
+                "idx_client_active_name_id", "uk_users_username", "uk_refresh_token_token_hash",
+                "idx_refresh_token_expiry_date", "uk_financial_ledger_period")) {
+            assertTrue(indexes.contains(index), () -> "Missing index " + index + " in " + indexes);
+        }
+    }
+
+    @Test
+    void upgradesDatabasesCreatedBeforeMigrations() throws Exception {
+        DriverManagerDataSource legacyDatabase = legacyDatabase();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(legacyDatabase);
+        try (Connection connection = legacyDatabase.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V1__baseline_schema.sql"));
+        }
+        jdbcTemplate.update("INSERT INTO users (id, username, password) VALUES (1, 'akash', 'hash')");
+        jdbcTemplate.update("INSERT INTO refresh_token (user_id, token, expiry_date) VALUES (1, 'legacy-token', now() + interval '1 day')");
+        jdbcTemplate.update("INSERT INTO client (name, age, is_deleted, image) VALUES ('Akash', 30, false, lo_from_bytea(0, '\\x0102'::bytea))");
+
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class, FlywayAutoConfiguration.class,
+                        HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class))
+                .withUserConfiguration(EntityConfig.class)
+                .withPropertyValues("spring.datasource.url=" + legacyDatabase.getUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "spring.flyway.baseline-on-migrate=true",
+                        "spring.flyway.baseline-version=1",
+                        "spring.jpa.hibernate.ddl-auto=validate")
+                .run(context -> {
+                    assertNull(context.getStartupFailure());
+                    MigrationInfo[] applied = context.getBean(Flyway.class).info().applied();
+                    assertEquals(CoreMigrationType.BASELINE, applied[0].getType());
+                    assertEquals(List.of("1", "2", "3", "4", "5", "6", "7", "8"),
+                            Arrays.stream(applied).map(MigrationInfo::getVersion).map(Object::toString).toList());
+                });
+
+        assertEquals(DigestUtil.tokenDigest("legacy-token"), jdbcTemplate.queryForObject("SELECT token_hash FROM refresh_token", String.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM client WHERE image IS NOT NULL AND image_key IS NULL", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM financial_ledger", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM client WHERE image_content_type IS NULL", Integer.class));
+    }
+
+    /**
+     * Creates an empty database next to the one of the context, to hold a schema created before migrations existed.
+     *
+     * @return the data source of the database
+     */
+    private static DriverManagerDataSource legacyDatabase() {
+        new JdbcTemplate(new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()))
+                .execute("CREATE DATABASE legacy");
+        String url = "jdbc:postgresql://" + postgres.getHost() + ":" + postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/legacy";
+        return new DriverManagerDataSource(url, postgres.getUsername(), postgres.getPassword());
+    }
+
+    @EntityScan("com.example.AstroTrack.entity")
+    static class EntityConfig {
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.AstroTrack.service;
+
+import com.example.AstroTrack.dto.ClientDto;
+import com.example.AstroTrack.dto.InvalidationEventDto;
+import com.example.AstroTrack.entity.Client;
+import com.example.AstroTrack.mapper.ClientMapper;
+import com.example.AstroTrack.repository.ClientRepository;
+import com.example.AstroTrack.service.Impl.ClientServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that client changes are published to the client name indexes of every instance, and only once the
+ * transaction that made them has committed.
+ */
+class ClientChangeBroadcastTest {
+
+    private final ClientRepository clientRepository = mock(ClientRepository.class);
+
+    private final InvalidationBusService invalidationBusService = mock(InvalidationBusService.class);
+
+    private ClientServiceImpl clientService;
+
+    @BeforeEach
+    void setUp() {
+        clientService = new ClientServiceImpl();
+        ReflectionTestUtils.setField(clientService, "clientRepository", clientRepository);
+        ReflectionTestUtils.setField(clientService, "clientMapper", new ClientMapper());
+        ReflectionTestUtils.setField(clientService, "financialLedgerService", mock(FinancialLedgerService.class));
+        ReflectionTestUtils.setField(clientService, "invalidationBusService", invalidationBusService);
+        when(clientRepository.save(any(Client.class))).thenAnswer(invocation -> {
+            Client client = invocation.getArgument(0);
+            if (client.getId() == null) {
+                client.setId(7L);
+            }
+            return client;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void publishesCreatedClientsRightAwayOutsideOfATransaction() {
+        ClientDto clientDto = new ClientDto();
+        clientDto.setName("Akash Jagtap");
+
+        clientService.createClient(clientDto);
+
+        verify(invalidationBusService).publish(InvalidationEventDto.clientChanged(7L, "Akash Jagtap"));
+    }
+
+    @Test
+    void publishesDeletedClientsAfterCommit() {
+        when(clientRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(client()));
+        TransactionSynchronizationManager.initSynchronization();
+
+        clientService.deleteClient(7L);
+
+        verify(invalidationBusService, never()).publish(any());
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        verify(invalidationBusService).publish(InvalidationEventDto.clientRemoved(7L));
+    }
+
+    @Test
+    void publishesNothingWhenTheTransactionRollsBack() {
+        when(clientRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(client()));
+        TransactionSynchronizationManager.initSynchronization();
+
+        clientService.deleteClient(7L);
+        TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verify(invalidationBusService, never()).publish(any());
+    }
+
+    private static Client client() {
+        Client client = new Client("Akash Jagtap", 30, new Date(), "Pune", "9999999999", null);
+        client.setId(7L);
+        return client;
+    }
+}
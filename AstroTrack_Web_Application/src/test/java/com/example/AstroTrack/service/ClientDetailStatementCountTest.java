@@ -0,0 +1,145 @@
+package com.example.AstroTrack.service;
+
+import com.example.AstroTrack.dto.ClientDto;
+import com.example.AstroTrack.entity.Client;
+import com.example.AstroTrack.entity.Consultation;
+import com.example.AstroTrack.exception.ClientNotFoundException;
+import com.example.AstroTrack.mapper.ClientMapper;
+import com.example.AstroTrack.repository.ClientRepository;
+import com.example.AstroTrack.repository.ConsultationRepository;
+import com.example.AstroTrack.service.Impl.ClientServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifies that reading a client's detail page issues a single SQL statement and that updates never load the
+ * client's full consultation history.
+ * Runs against PostgreSQL in a container and is skipped when Docker is not available.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({ClientServiceImpl.class, ClientMapper.class})
+class ClientDetailStatementCountTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientDetailStatementCountTest.class);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    ClientServiceImpl clientService;
+
+    @Autowired
+    ClientRepository clientRepository;
+
+    @Autowired
+    ConsultationRepository consultationRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @MockitoBean
+    ImageStorageService imageStorageService;
+
+    @MockitoBean
+    ThumbnailService thumbnailService;
+
+    @MockitoBean
+    ClientSearchService clientSearchService;
+
+    @MockitoBean
+    InvalidationBusService invalidationBusService;
+
+    @MockitoBean
+    FinancialLedgerService financialLedgerService;
+
+    private Statistics statistics;
+
+    private Long clientId;
+
+    @BeforeEach
+    void setUp() {
+        Client client = new Client("Akash Jagtap", 30, new Date(), "Pune", "9999999999", null);
+        client.setDeleted(false);
+        clientId = clientRepository.save(client).getId();
+        for (int i = 1; i <= 12; i++) {
+            Consultation consultation = new Consultation(new Date(), "Consultation " + i, 100.0, (double) i, null);
+            consultation.setClient(client);
+            consultationRepository.save(consultation);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void readsClientBalanceAndConsultationPageWithOneStatement() {
+        long start = System.nanoTime();
+        ClientDto clientDto = clientService.getClientById(clientId, 1);
+        long elapsedMicros = (System.nanoTime() - start) / 1_000;
+        logger.info("Client detail read in {} us with {} statements", elapsedMicros, statistics.getPrepareStatementCount());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("Akash Jagtap", clientDto.getName());
+        assertEquals(78.0, clientDto.getBalance());
+        assertEquals(5, clientDto.getConsultations().size());
+        assertEquals("Consultation 6", clientDto.getConsultations().get(0).getNotes());
+        assertEquals("Consultation 10", clientDto.getConsultations().get(4).getNotes());
+    }
+
+    @Test
+    void readsPartialAndEmptyPagesWithOneStatementEach() {
+        assertEquals(2, clientService.getClientById(clientId, 2).getConsultations().size());
+        assertNull(clientService.getClientById(clientId, 3).getConsultations());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updatesClientWithoutLoadingConsultations() {
+        ClientDto update = new ClientDto();
+        update.setName("Akash J");
+        update.setAge(31);
+        update.setPlaceOfBirth("Mumbai");
+        update.setPhoneNumber("8888888888");
+
+        ClientDto clientDto = clientService.updateClient(clientId, update);
+
+        assertEquals(0, statistics.getCollectionLoadCount());
+        assertEquals(0, statistics.getEntityStatistics(Consultation.class.getName()).getLoadCount());
+        assertEquals("Akash J", clientDto.getName());
+        assertEquals(78.0, clientDto.getBalance());
+        assertEquals(5, clientDto.getConsultations().size());
+    }
+
+    @Test
+    void rejectsDeletedClients() {
+        Client client = clientRepository.findById(clientId).orElseThrow();
+        client.setDeleted(true);
+        clientRepository.saveAndFlush(client);
+
+        assertThrows(ClientNotFoundException.class, () -> clientService.getClientById(clientId, 0));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.AstroTrack.service;
+
+import com.example.AstroTrack.dto.ClientSliceDto;
+import com.example.AstroTrack.dto.ViewAllClientsDto;
+import com.example.AstroTrack.entity.Client;
+import com.example.AstroTrack.mapper.ClientMapper;
+import com.example.AstroTrack.repository.ClientRepository;
+import com.example.AstroTrack.service.Impl.ClientServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Verifies that walking every slice of the client list returns each listed client exactly once, in order, with ties
+ * on name broken by id and unnamed clients listed after the named ones.
+ * Runs against PostgreSQL in a container and is skipped when Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({ClientServiceImpl.class, ClientMapper.class})
+class ClientKeysetPaginationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    ClientServiceImpl clientService;
+
+    @Autowired
+    ClientRepository clientRepository;
+
+    @MockitoBean
+    ImageStorageService imageStorageService;
+
+    @MockitoBean
+    ThumbnailService thumbnailService;
+
+    @MockitoBean
+    ClientSearchService clientSearchService;
+
+    @MockitoBean
+    InvalidationBusService invalidationBusService;
+
+    @MockitoBean
+    FinancialLedgerService financialLedgerService;
+
+    private final List<Client> listed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 12; i++) {
+            listed.add(save("Asha", false));
+        }
+        for (int i = 0; i < 7; i++) {
+            listed.add(save(null, false));
+        }
+        listed.add(save("Zubin", false));
+        listed.add(save("Bhavna", false));
+        listed.add(save("", false));
+        save("Asha", true);
+        save(null, true);
+    }
+
+    @Test
+    void listsEveryClientOnceByNameThenId() {
+        List<Long> expected = listed.stream()
+                .sorted(Comparator.comparing(Client::getName, Comparator.nullsLast(Comparator.<String>naturalOrder()))
+                        .thenComparing(Client::getId))
+                .map(Client::getId)
+                .toList();
+
+        assertEquals(expected, walk("name"));
+    }
+
+    @Test
+    void listsEveryClientOnceById() {
+        List<Long> expected = listed.stream().map(Client::getId).sorted().toList();
+
+        assertEquals(expected, walk("id"));
+    }
+
+    @Test
+    void endsWithoutCursorWhenTheLastSliceIsFull() {
+        clientRepository.deleteAll(listed.subList(10, listed.size()));
+
+        ClientSliceDto first = clientService.viewAllClients("", "name");
+
+        assertEquals(10, first.getClients().size());
+        assertNull(first.getNextCursor());
+    }
+
+    private List<Long> walk(String sort) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = "";
+        do {
+            ClientSliceDto slice = clientService.viewAllClients(cursor, sort);
+            slice.getClients().stream().map(ViewAllClientsDto::getId).forEach(ids::add);
+            cursor = slice.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private Client save(String name, boolean deleted) {
+        Client client = new Client(name, 30, new Date(), "Pune", "9999999999", null);
+        client.setDeleted(deleted);
+        return clientRepository.save(client);
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.AstroTrack.service;
+
+import com.example.AstroTrack.dto.ClientSearchHitDto;
+import com.example.AstroTrack.dto.InvalidationEventDto;
+import com.example.AstroTrack.repository.ClientRepository;
+import com.example.AstroTrack.repository.projection.ClientSummaryView;
+import com.example.AstroTrack.service.Impl.ClientSearchServiceImpl;
+import com.example.AstroTrack.service.Impl.LocalInvalidationBusServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that the client search index finds names by substring regardless of case and accents, ranks the matches,
+ * follows renames and removals, pages without duplicates or gaps and answers queries within the latency target.
+ */
+class ClientSearchServiceImplTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientSearchServiceImplTest.class);
+
+    private static final String[] FIRST_NAMES = {"Akash", "Asha", "Bhavna", "Deepak", "Gauri", "Harish", "Ishaan",
+            "Jyoti", "Kiran", "Lakshmi", "Meera", "Nikhil", "Omkar", "Pooja", "Rahul", "Sanjay", "Tanvi", "Uday",
+            "Vikram", "Yamini"};
+
+    private static final String[] LAST_NAMES = {"Agarwal", "Bhat", "Chopra", "Desai", "Gokhale", "Iyer", "Jagtap",
+            "Kulkarni", "Mehta", "Nair", "Patil", "Rao", "Sharma", "Shinde", "Trivedi", "Verma"};
+
+    private final ClientRepository clientRepository = mock(ClientRepository.class);
+
+    private final InvalidationBusService invalidationBusService = new LocalInvalidationBusServiceImpl();
+
+    private ClientSearchServiceImpl clientSearchService;
+
+    @BeforeEach
+    void setUp() {
+        clientSearchService = new ClientSearchServiceImpl();
+        ReflectionTestUtils.setField(clientSearchService, "clientRepository", clientRepository);
+        ReflectionTestUtils.setField(clientSearchService, "invalidationBusService", invalidationBusService);
+    }
+
+    @Test
+    void matchesSubstringsIgnoringCaseAndAccents() {
+        load(new Summary(1L, "Akash Jagtap"), new Summary(2L, "José Ñúñez"), new Summary(3L, "Prakash Rao"),
+                new Summary(4L, "Meera Iyer"));
+
+        assertEquals(List.of(1L, 3L), ids(clientSearchService.search("KASH", 0, 10)));
+        assertEquals(List.of(2L), ids(clientSearchService.search("nunez", 0, 10)));
+        assertEquals(List.of(2L), ids(clientSearchService.search("JOSÉ ñu", 0, 10)));
+        assertEquals(List.of(4L), ids(clientSearchService.search("a  iy", 0, 10)));
+        assertEquals(List.of(), clientSearchService.search("kashi", 0, 10));
+        assertEquals(List.of(), clientSearchService.search("   ", 0, 10));
+    }
+
+    @Test
+    void ranksNameStartsThenWordStartsThenOtherMatches() {
+        load(new Summary(1L, "Prakash Rao"), new Summary(2L, "Rao Ashok"), new Summary(3L, "Ashwin Patil"),
+                new Summary(4L, "Asha Bhat"), new Summary(5L, "Asha Bhat"), new Summary(6L, "Kiran Ashtekar"));
+
+        List<ClientSearchHitDto> hits = clientSearchService.search("ash", 0, 10);
+
+        assertEquals(List.of(4L, 5L, 3L, 6L, 2L, 1L), ids(hits));
+        assertEquals(List.of(0, 0, 0, 1, 1, 2), hits.stream().map(ClientSearchHitDto::getRank).toList());
+    }
+
+    @Test
+    void followsRenamesAndRemovals() {
+        load(new Summary(1L, "Akash Jagtap"), new Summary(2L, "Asha Bhat"));
+
+        clientSearchService.index(1L, "Ravi Kulkarni");
+        clientSearchService.index(3L, "Akash Mehta");
+
+        assertEquals(List.of(3L), ids(clientSearchService.search("akash", 0, 10)));
+        assertEquals(List.of(1L), ids(clientSearchService.search("kulkarni", 0, 10)));
+        assertEquals("ravi kulkarni", clientSearchService.search("ravi", 0, 10).get(0).getName());
+
+        clientSearchService.remove(1L);
+        clientSearchService.remove(42L);
+
+        assertEquals(List.of(), clientSearchService.search("kulkarni", 0, 10));
+        assertEquals(List.of(3L, 2L), ids(clientSearchService.search("a", 0, 10)));
+    }
+
+    @Test
+    void appliesClientChangesPublishedOnTheBus() {
+        load(new Summary(1L, "Akash Jagtap"), new Summary(2L, "Asha Bhat"));
+        clientSearchService.init();
+
+        invalidationBusService.publish(InvalidationEventDto.clientChanged(1L, "Ravi Kulkarni"));
+        invalidationBusService.publish(InvalidationEventDto.clientChanged(3L, "Akash Mehta"));
+        invalidationBusService.publish(InvalidationEventDto.clientRemoved(2L));
+        invalidationBusService.publish(InvalidationEventDto.cacheEvicted("users", List.of("1")));
+
+        assertEquals(List.of(3L), ids(clientSearchService.search("akash", 0, 10)));
+        assertEquals(List.of(1L), ids(clientSearchService.search("kulkarni", 0, 10)));
+        assertEquals(List.of(), clientSearchService.search("asha", 0, 10));
+    }
+
+    @Test
+    void keepsChangesAppliedWhileRebuilding() {
+        load(new Summary(1L, "Akash Jagtap"), new Summary(2L, "Asha Bhat"));
+        List<ClientSummaryView> stale = List.of(new Summary(1L, "Akash Jagtap"), new Summary(2L, "Asha Bhat"));
+        when(clientRepository.findAllActiveSummaries()).thenAnswer(invocation -> {
+            clientSearchService.index(1L, "Ravi Kulkarni");
+            clientSearchService.index(3L, "Meera Iyer");
+            clientSearchService.remove(2L);
+            return stale;
+        });
+
+        clientSearchService.rebuild();
+
+        assertEquals(List.of(), clientSearchService.search("akash", 0, 10));
+        assertEquals(List.of(1L), ids(clientSearchService.search("kulkarni", 0, 10)));
+        assertEquals(List.of(3L), ids(clientSearchService.search("iyer", 0, 10)));
+        assertEquals(List.of(), clientSearchService.search("asha", 0, 10));
+    }
+
+    @Test
+    void pagesWithoutDuplicatesOrGaps() {
+        List<Summary> clients = new ArrayList<>();
+        for (long id = 1; id <= 47; id++) {
+            clients.add(new Summary(id, FIRST_NAMES[(int) (id % 5)] + " Sharma " + (id % 3 == 0 ? "Rao" : "")));
+        }
+        clients.add(new Summary(48L, "Iyer"));
+        load(clients.toArray(Summary[]::new));
+        List<Long> expected = ids(clientSearchService.search("sha", 0, 100));
+
+        List<Long> byOffset = new ArrayList<>();
+        for (int offset = 0; offset < 60; offset += 10) {
+            byOffset.addAll(ids(clientSearchService.search("sha", offset, 10)));
+        }
+        List<Long> byCursor = new ArrayList<>();
+        List<ClientSearchHitDto> slice = clientSearchService.searchAfter("sha", null, 10);
+        while (!slice.isEmpty()) {
+            byCursor.addAll(ids(slice));
+            slice = clientSearchService.searchAfter("sha", slice.get(slice.size() - 1), 10);
+        }
+
+        assertEquals(47, expected.size());
+        assertEquals(47, new HashSet<>(expected).size());
+        assertEquals(expected, byOffset);
+        assertEquals(expected, byCursor);
+    }
+
+    @Test
+    void answersQueriesShorterThanATrigramByScanning() {
+        load(new Summary(1L, "Al"), new Summary(2L, "Bo Li"), new Summary(3L, "Kalpana"), new Summary(4L, "Uday"));
+
+        assertEquals(List.of(2L, 1L, 3L), ids(clientSearchService.search("l", 0, 10)));
+        assertEquals(List.of(1L, 3L), ids(clientSearchService.search("AL", 0, 10)));
+        assertEquals(List.of(3L), ids(clientSearchService.search("al", 1, 10)));
+        assertEquals(List.of(), clientSearchService.search("ali", 0, 10));
+        assertEquals(List.of(2L), ids(clientSearchService.search("bo", 0, 10)));
+    }
+
+    @Test
+    void answersQueriesOverHundredThousandClientsWithinTenMilliseconds() {
+        Summary[] clients = new Summary[100_000];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = new Summary((long) i + 1, FIRST_NAMES[i % FIRST_NAMES.length] + " "
+                    + LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length] + " " + (i % 997));
+        }
+        load(clients);
+        List<String> queries = List.of("a", "sh", "ash", "sharma", "kiran patil", "rao 99", "zzz");
+
+        for (String query : queries) {
+            for (int i = 0; i < 100; i++) {
+                clientSearchService.search(query, 0, 10);
+            }
+        }
+        for (String query : queries) {
+            long[] micros = new long[51];
+            for (int i = 0; i < micros.length; i++) {
+                long start = System.nanoTime();
+                clientSearchService.search(query, 0, 10);
+                micros[i] = (System.nanoTime() - start) / 1_000;
+            }
+            Arrays.sort(micros);
+            long median = micros[micros.length / 2];
+            logger.info("Searched 100000 clients for \"{}\" in {} us (median)", query, median);
+            assertTrue(median < 10_000, query + " took " + median + " us");
+        }
+    }
+
+    private void load(Summary... clients) {
+        when(clientRepository.findAllActiveSummaries()).thenReturn(List.of(clients));
+        clientSearchService.rebuild();
+    }
+
+    private static List<Long> ids(List<ClientSearchHitDto> hits) {
+        return hits.stream().map(ClientSearchHitDto::getId).toList();
+    }
+
+    /**
+     * Client summary served by the mocked repository.
+     */
+    private record Summary(Long id, String name) implements ClientSummaryView {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getPhoneNumber() {
+            return null;
+        }
+
+        @Override
+        public String getImageKey() {
+            return null;
+        }
+    }
+}
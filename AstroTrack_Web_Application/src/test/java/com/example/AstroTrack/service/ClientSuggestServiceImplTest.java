@@ -0,0 +1,145 @@
+package com.example.AstroTrack.service;
+
+import com.example.AstroTrack.dto.ClientSuggestionDto;
+import com.example.AstroTrack.dto.InvalidationEventDto;
+import com.example.AstroTrack.repository.ClientRepository;
+import com.example.AstroTrack.repository.projection.ClientSummaryView;
+import com.example.AstroTrack.service.Impl.ClientSuggestServiceImpl;
+import com.example.AstroTrack.service.Impl.LocalInvalidationBusServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that client suggestions match the start of the name or of any of its words, respect the limit, follow
+ * index updates and removals and are answered without touching the database.
+ */
+class ClientSuggestServiceImplTest {
+
+    private final ClientRepository clientRepository = mock(ClientRepository.class);
+
+    private final InvalidationBusService invalidationBusService = new LocalInvalidationBusServiceImpl();
+
+    private ClientSuggestServiceImpl clientSuggestService;
+
+    @BeforeEach
+    void setUp() {
+        clientSuggestService = new ClientSuggestServiceImpl();
+        ReflectionTestUtils.setField(clientSuggestService, "clientRepository", clientRepository);
+        ReflectionTestUtils.setField(clientSuggestService, "invalidationBusService", invalidationBusService);
+        List<ClientSummaryView> clients = List.of(new Summary(1L, "Akash Jagtap"), new Summary(2L, "Asha Ashok Rao"),
+                new Summary(3L, "José Ñúñez"), new Summary(4L, "Prakash Rao"), new Summary(5L, null));
+        when(clientRepository.findAllActiveSummaries()).thenReturn(clients);
+        clientSuggestService.rebuild();
+        clearInvocations(clientRepository);
+    }
+
+    @Test
+    void matchesTheStartOfTheNameOrOfAWord() {
+        assertEquals(List.of(1L), ids(clientSuggestService.suggest("AKA", 10)));
+        assertEquals(List.of(1L), ids(clientSuggestService.suggest("jag", 10)));
+        assertEquals(List.of(2L, 4L), ids(clientSuggestService.suggest("rao", 10)));
+        assertEquals(List.of(3L), ids(clientSuggestService.suggest("nun", 10)));
+        assertEquals(List.of(3L), ids(clientSuggestService.suggest("jose  nu", 10)));
+        assertEquals(List.of(), clientSuggestService.suggest("kash", 10));
+        assertEquals(List.of(), clientSuggestService.suggest(" ", 10));
+        assertEquals("José Ñúñez", clientSuggestService.suggest("nu", 10).get(0).getName());
+    }
+
+    @Test
+    void suggestsEachClientOnceUpToTheLimit() {
+        assertEquals(List.of(2L), ids(clientSuggestService.suggest("ash", 10)));
+        assertEquals(List.of(1L, 2L), ids(clientSuggestService.suggest("a", 10)));
+        assertEquals(List.of(1L), ids(clientSuggestService.suggest("a", 1)));
+        assertEquals(List.of(), clientSuggestService.suggest("a", 0));
+
+        for (long id = 10; id < 50; id++) {
+            clientSuggestService.index(id, "Sharma " + id);
+        }
+
+        assertEquals(ClientSuggestServiceImpl.MAX_SUGGESTIONS, clientSuggestService.suggest("sharma", 100).size());
+    }
+
+    @Test
+    void followsIndexUpdatesAndRemovals() {
+        clientSuggestService.index(1L, "Ravi Kulkarni");
+        clientSuggestService.index(6L, "Akash Mehta");
+        clientSuggestService.index(6L, "Akash Mehta");
+
+        assertEquals(List.of(6L), ids(clientSuggestService.suggest("akash", 10)));
+        assertEquals(List.of(1L), ids(clientSuggestService.suggest("kul", 10)));
+        assertEquals(List.of(2L, 4L), ids(clientSuggestService.suggest("rao", 10)));
+
+        clientSuggestService.remove(1L);
+        clientSuggestService.remove(42L);
+
+        assertEquals(List.of(), clientSuggestService.suggest("ravi", 10));
+        assertEquals(List.of(6L), ids(clientSuggestService.suggest("mehta", 10)));
+    }
+
+    @Test
+    void appliesClientChangesPublishedOnTheBus() {
+        clientSuggestService.init();
+
+        invalidationBusService.publish(InvalidationEventDto.clientChanged(1L, "Ravi Kulkarni"));
+        invalidationBusService.publish(InvalidationEventDto.clientChanged(6L, null));
+        invalidationBusService.publish(InvalidationEventDto.clientRemoved(2L));
+        invalidationBusService.publish(InvalidationEventDto.cacheEvicted("users", List.of("4")));
+
+        assertEquals(List.of(), clientSuggestService.suggest("akash", 10));
+        assertEquals(List.of(1L), ids(clientSuggestService.suggest("kul", 10)));
+        assertEquals(List.of(4L), ids(clientSuggestService.suggest("rao", 10)));
+    }
+
+    @Test
+    void neverQueriesTheDatabase() {
+        clientSuggestService.index(6L, "Akash Mehta");
+        clientSuggestService.suggest("akash", 10);
+        clientSuggestService.suggest("a", 25);
+        clientSuggestService.remove(6L);
+        clientSuggestService.suggest("mehta", 10);
+
+        verifyNoInteractions(clientRepository);
+    }
+
+    private static List<Long> ids(List<ClientSuggestionDto> suggestions) {
+        List<Long> ids = new ArrayList<>();
+        suggestions.forEach(suggestion -> ids.add(suggestion.getId()));
+        return ids;
+    }
+
+    /**
+     * Client summary served by the mocked repository.
+     */
+    private record Summary(Long id, String name) implements ClientSummaryView {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getPhoneNumber() {
+            return null;
+        }
+
+        @Override
+        public String getImageKey() {
+            return null;
+        }
+    }
+}
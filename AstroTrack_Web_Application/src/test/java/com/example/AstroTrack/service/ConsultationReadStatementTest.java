@@ -0,0 +1,117 @@
+package com.example.AstroTrack.service;
+
+import com.example.AstroTrack.dto.ConsultationDto;
+import com.example.AstroTrack.entity.Client;
+import com.example.AstroTrack.entity.Consultation;
+import com.example.AstroTrack.mapper.ConsultationsMapper;
+import com.example.AstroTrack.repository.ClientRepository;
+import com.example.AstroTrack.repository.ConsultationRepository;
+import com.example.AstroTrack.service.Impl.ConsultationServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Verifies that consultation reads and writes never load the owning client.
+ * Runs against PostgreSQL in a container and is skipped when Docker is not available.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({ConsultationServiceImpl.class, ConsultationsMapper.class})
+class ConsultationReadStatementTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsultationReadStatementTest.class);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    ConsultationServiceImpl consultationService;
+
+    @Autowired
+    ClientRepository clientRepository;
+
+    @Autowired
+    ConsultationRepository consultationRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @MockitoBean
+    FinancialLedgerService financialLedgerService;
+
+    private Statistics statistics;
+
+    private Long clientId;
+
+    private Long consultationId;
+
+    @BeforeEach
+    void setUp() {
+        Client client = new Client("Akash Jagtap", 30, new Date(), "Pune", "9999999999", null);
+        client.setDeleted(false);
+        clientId = clientRepository.save(client).getId();
+        for (int i = 1; i <= 20; i++) {
+            Consultation consultation = new Consultation(new Date(), "Consultation " + i, 100.0, 10.0, null);
+            consultation.setClient(client);
+            consultationId = consultationRepository.save(consultation).getId();
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void readsConsultationsWithoutLoadingClient() {
+        long start = System.nanoTime();
+        List<ConsultationDto> consultations = consultationService.getAllConsultations(clientId);
+        ConsultationDto consultation = consultationService.getConsultation(consultationId);
+        logger.info("Consultation reads took {} us, {} statements, {} client loads",
+                (System.nanoTime() - start) / 1_000, statistics.getPrepareStatementCount(), clientLoads());
+
+        assertEquals(20, consultations.size());
+        assertEquals("Consultation 20", consultation.getNotes());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, clientLoads());
+    }
+
+    @Test
+    void createsAndUpdatesConsultationsWithoutLoadingClient() {
+        ConsultationDto consultationDto = new ConsultationDto(null, new Date(), "New consultation", 150.0, 50.0, null);
+
+        ConsultationDto created = consultationService.createConsultation(consultationDto, clientId);
+        entityManager.flush();
+        entityManager.clear();
+        consultationDto.setNotes("Updated consultation");
+        ConsultationDto updated = consultationService.updateConsultation(created.getId(), consultationDto);
+        entityManager.flush();
+
+        assertEquals("Updated consultation", updated.getNotes());
+        assertEquals(0, clientLoads());
+    }
+
+    private long clientLoads() {
+        return statistics.getEntityStatistics(Client.class.getName()).getLoadCount();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.AstroTrack.service;
+
+import com.example.AstroTrack.exception.ImageNotFoundException;
+import com.example.AstroTrack.service.Impl.FileSystemImageStorageServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that images are stored once per content under their content hash and read back unchanged.
+ */
+class FileSystemImageStorageServiceImplTest {
+
+    private static final byte[] IMAGE = {1, 2, 3, 4, 5};
+
+    @TempDir
+    Path location;
+
+    private FileSystemImageStorageServiceImpl imageStorageService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        imageStorageService = new FileSystemImageStorageServiceImpl();
+        ReflectionTestUtils.setField(imageStorageService, "location", location.toString());
+        imageStorageService.init();
+    }
+
+    @Test
+    void storesIdenticalContentOnceUnderItsHash() throws Exception {
+        String key = imageStorageService.store(new ByteArrayInputStream(IMAGE));
+        String sameKey = imageStorageService.store(new ByteArrayInputStream(IMAGE.clone()));
+        String otherKey = imageStorageService.store(new ByteArrayInputStream(new byte[]{9}));
+
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(IMAGE)), key);
+        assertEquals(key, sameKey);
+        assertNotEquals(key, otherKey);
+        assertEquals(List.of(key, otherKey).stream().sorted().toList(), storedFiles());
+    }
+
+    @Test
+    void readsBackTheStoredBytes() throws Exception {
+        String key = imageStorageService.store(new ByteArrayInputStream(IMAGE));
+        ByteArrayOutputStream transferred = new ByteArrayOutputStream();
+
+        assertEquals(IMAGE.length, imageStorageService.size(key));
+        assertEquals(IMAGE.length, imageStorageService.transferTo(key, Channels.newChannel(transferred)));
+        assertArrayEquals(IMAGE, transferred.toByteArray());
+        assertArrayEquals(IMAGE, imageStorageService.read(key));
+        assertTrue(imageStorageService.exists(key));
+    }
+
+    @Test
+    void raisesImageNotFoundForMissingKeys() {
+        String missing = "0".repeat(64);
+
+        assertFalse(imageStorageService.exists(missing));
+        assertThrows(ImageNotFoundException.class, () -> imageStorageService.size(missing));
+        assertThrows(ImageNotFoundException.class, () -> imageStorageService.open(missing));
+        assertThrows(ImageNotFoundException.class, () -> imageStorageService.read(missing));
+        assertThrows(ImageNotFoundException.class,
+                () -> imageStorageService.transferTo(missing, Channels.newChannel(new ByteArrayOutputStream())));
+    }
+
+    @Test
+    void rejectsKeysThatAreNotContentHashes() {
+        assertThrows(IllegalArgumentException.class, () -> imageStorageService.read("../../etc/passwd"));
+        assertThrows(IllegalArgumentException.class, () -> imageStorageService.variantKey("0".repeat(64), "../x"));
+    }
+
+    @Test
+    void storesVariantsNextToTheirImage() throws Exception {
+        String key = imageStorageService.store(new ByteArrayInputStream(IMAGE));
+
+        String variantKey = imageStorageService.storeVariant(key, "w64", new ByteArrayInputStream(new byte[]{7}));
+
+        assertEquals(key + "-w64", variantKey);
+        assertArrayEquals(new byte[]{7}, imageStorageService.read(variantKey));
+    }
+
+    /**
+     * Lists the names of the stored files, leaving out the temporary uploads.
+     *
+     * @return the sorted names of the stored files
+     */
+    private List<String> storedFiles() throws Exception {
+        try (Stream<Path> files = Files.walk(location)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> !file.getParent().getFileName().toString().equals("tmp"))
+                    .map(file -> file.getFileName().toString())
+                    .sorted()
+                    .toList();
+        }
+    }
+}
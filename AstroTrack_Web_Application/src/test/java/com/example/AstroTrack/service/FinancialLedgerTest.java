@@ -0,0 +1,236 @@
+package com.example.AstroTrack.service;
+
+import com.example.AstroTrack.config.CacheConfig;
+import com.example.AstroTrack.dto.ClientDto;
+import com.example.AstroTrack.dto.ConsultationDto;
+import com.example.AstroTrack.dto.FinancialLedgerVerificationDto;
+import com.example.AstroTrack.dto.FinancialReportDto;
+import com.example.AstroTrack.dto.FinancialSeriesDto;
+import com.example.AstroTrack.dto.FinancialSeriesPointDto;
+import com.example.AstroTrack.dto.ReportGranularity;
+import com.example.AstroTrack.mapper.ClientMapper;
+import com.example.AstroTrack.mapper.ConsultationsMapper;
+import com.example.AstroTrack.service.Impl.ClientServiceImpl;
+import com.example.AstroTrack.service.Impl.ConsultationServiceImpl;
+import com.example.AstroTrack.service.Impl.FinancialLedgerServiceImpl;
+import com.example.AstroTrack.service.Impl.LocalInvalidationBusServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that the financial ledger follows consultation and client writes and matches a full recomputation,
+ * that cached reports are invalidated by those writes, and that financial series agree with the ledger.
+ * Runs against PostgreSQL in a container and is skipped when Docker is not available.
+ */
+@DataJpaTest(properties = {
+        "spring.cache.type=caffeine",
+        "spring.cache.cache-names=financialMonthly,financialTotals",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({FinancialLedgerServiceImpl.class, ConsultationServiceImpl.class, ConsultationsMapper.class,
+        ClientServiceImpl.class, ClientMapper.class, CacheConfig.class, LocalInvalidationBusServiceImpl.class})
+class FinancialLedgerTest {
+
+    private static final LocalDate MARCH = LocalDate.of(2024, 3, 15);
+
+    private static final LocalDate APRIL = LocalDate.of(2024, 4, 2);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    FinancialLedgerService financialLedgerService;
+
+    @Autowired
+    ConsultationServiceImpl consultationService;
+
+    @Autowired
+    ClientServiceImpl clientService;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @MockitoBean
+    ImageStorageService imageStorageService;
+
+    @MockitoBean
+    ThumbnailService thumbnailService;
+
+    @MockitoBean
+    ClientSearchService clientSearchService;
+
+    private Long firstClientId;
+
+    private Long secondClientId;
+
+    @BeforeEach
+    void setUp() {
+        financialLedgerService.rebuild();
+        firstClientId = createClient("Akash Jagtap");
+        secondClientId = createClient("Sita Patil");
+    }
+
+    @Test
+    void tracksConsultationWrites() {
+        ConsultationDto march = consultationService.createConsultation(consultation(MARCH, 100.10, 20.05), firstClientId);
+        consultationService.createConsultation(consultation(MARCH, 50.00, 0.00), secondClientId);
+        ConsultationDto april = consultationService.createConsultation(consultation(APRIL, 70.00, 10.00), firstClientId);
+
+        consultationService.updateConsultation(march.getId(), consultation(APRIL, 120.00, 30.00));
+        consultationService.deleteConsultation(april.getId());
+
+        FinancialReportDto marchReport = consultationService.getFinancialReport(MARCH);
+        assertEquals(50.00, marchReport.getMonthlyEarning());
+        assertEquals(170.00, marchReport.getTotalEarning());
+        assertEquals(30.00, marchReport.getTotalDueAmount());
+        assertEquals(120.00, consultationService.getFinancialReport(APRIL).getMonthlyEarning());
+        assertTrue(financialLedgerService.verify().isConsistent());
+    }
+
+    @Test
+    void removesDeletedClients() {
+        consultationService.createConsultation(consultation(MARCH, 100.00, 25.00), firstClientId);
+        consultationService.createConsultation(consultation(MARCH, 40.00, 5.00), secondClientId);
+
+        clientService.deleteClient(firstClientId);
+
+        FinancialReportDto report = consultationService.getFinancialReport(MARCH);
+        assertEquals(40.00, report.getMonthlyEarning());
+        assertEquals(40.00, report.getTotalEarning());
+        assertEquals(5.00, report.getTotalDueAmount());
+        assertTrue(financialLedgerService.verify().isConsistent());
+    }
+
+    @Test
+    void leavesUndatedConsultationsOutOfTheLedger() {
+        consultationService.createConsultation(consultation(MARCH, 100.00, 25.00), firstClientId);
+        ConsultationDto undated = consultationService.createConsultation(consultation(null, 40.00, 5.00), firstClientId);
+        ConsultationDto deleted = consultationService.createConsultation(consultation(null, 10.00, 0.00), firstClientId);
+        consultationService.createConsultation(consultation(null, 60.00, 15.00), secondClientId);
+
+        FinancialLedgerVerificationDto rebuilt = financialLedgerService.rebuild();
+        consultationService.updateConsultation(undated.getId(), consultation(APRIL, 45.00, 5.00));
+        consultationService.deleteConsultation(deleted.getId());
+        clientService.deleteClient(secondClientId);
+
+        assertTrue(rebuilt.isConsistent());
+        FinancialReportDto report = consultationService.getFinancialReport(APRIL);
+        assertEquals(45.00, report.getMonthlyEarning());
+        assertEquals(145.00, report.getTotalEarning());
+        assertEquals(30.00, report.getTotalDueAmount());
+        assertTrue(financialLedgerService.verify().isConsistent());
+
+        consultationService.updateConsultation(undated.getId(), consultation(null, 45.00, 5.00));
+
+        FinancialReportDto undatedAgain = consultationService.getFinancialReport(APRIL);
+        assertEquals(0.00, undatedAgain.getMonthlyEarning());
+        assertEquals(100.00, undatedAgain.getTotalEarning());
+        assertTrue(financialLedgerService.verify().isConsistent());
+    }
+
+    @Test
+    void rebuildRepairsDrift() {
+        consultationService.createConsultation(consultation(MARCH, 100.00, 25.00), firstClientId);
+        entityManager.flush();
+        entityManager.createNativeQuery("UPDATE financial_ledger SET earnings = earnings + 1").executeUpdate();
+
+        FinancialLedgerVerificationDto drifted = financialLedgerService.verify();
+        FinancialLedgerVerificationDto rebuilt = financialLedgerService.rebuild();
+
+        assertFalse(drifted.isConsistent());
+        assertEquals(2, drifted.getMismatches().size());
+        assertTrue(rebuilt.isConsistent());
+        assertEquals(100.00, consultationService.getFinancialReport(MARCH).getMonthlyEarning());
+    }
+
+    @Test
+    void reportsMonthsWithoutConsultationsAsEmpty() {
+        consultationService.createConsultation(consultation(MARCH, 100.00, 25.00), firstClientId);
+
+        FinancialReportDto report = consultationService.getFinancialReport(LocalDate.of(2023, 1, 1));
+
+        assertNull(report.getMonthlyEarning());
+        assertEquals(100.00, report.getTotalEarning());
+    }
+
+    @Test
+    void servesRepeatedReportsFromTheCacheUntilAWrite() {
+        consultationService.createConsultation(consultation(MARCH, 100.00, 25.00), firstClientId);
+        assertEquals(100.00, consultationService.getFinancialReport(MARCH).getMonthlyEarning());
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        FinancialReportDto cached = consultationService.getFinancialReport(MARCH);
+        long cachedStatements = statistics.getPrepareStatementCount();
+        consultationService.createConsultation(consultation(APRIL, 70.00, 10.00), secondClientId);
+        FinancialReportDto afterAprilWrite = consultationService.getFinancialReport(MARCH);
+        consultationService.createConsultation(consultation(MARCH, 30.00, 5.00), secondClientId);
+        FinancialReportDto afterMarchWrite = consultationService.getFinancialReport(MARCH);
+
+        assertEquals(0, cachedStatements);
+        assertEquals(100.00, cached.getMonthlyEarning());
+        assertEquals(100.00, afterAprilWrite.getMonthlyEarning());
+        assertEquals(170.00, afterAprilWrite.getTotalEarning());
+        assertEquals(130.00, afterMarchWrite.getMonthlyEarning());
+        assertEquals(40.00, afterMarchWrite.getTotalDueAmount());
+    }
+
+    @Test
+    void seriesHasDenseBucketsMatchingTheLedger() {
+        consultationService.createConsultation(consultation(MARCH, 100.00, 25.00), firstClientId);
+        consultationService.createConsultation(consultation(APRIL, 70.00, 10.00), secondClientId);
+
+        FinancialSeriesDto months = consultationService.getFinancialSeries(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 5, 31), ReportGranularity.MONTH);
+        FinancialSeriesDto days = consultationService.getFinancialSeries(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 4, 30), ReportGranularity.DAY);
+
+        assertEquals(List.of(0.0, 100.0, 70.0, 0.0), months.getPoints().stream().map(FinancialSeriesPointDto::getEarning).toList());
+        assertEquals(consultationService.getFinancialReport(MARCH).getMonthlyEarning(), months.getPoints().get(1).getEarning());
+        assertEquals(61, days.getPoints().size());
+        assertEquals(100.0, days.getPoints().get(14).getEarning());
+    }
+
+    @Test
+    void seriesRejectsTooManyBuckets() {
+        assertThrows(IllegalArgumentException.class,
+                () -> consultationService.getFinancialSeries(LocalDate.of(2000, 1, 1), LocalDate.of(2024, 1, 1), ReportGranularity.DAY));
+    }
+
+    private Long createClient(String name) {
+        ClientDto clientDto = new ClientDto();
+        clientDto.setName(name);
+        clientDto.setAge(30);
+        clientDto.setPlaceOfBirth("Pune");
+        clientDto.setPhoneNumber("9999999999");
+        return clientService.createClient(clientDto).getId();
+    }
+
+    private static ConsultationDto consultation(LocalDate date, double price, double dueAmount) {
+        Date consultationDate = date == null ? null : Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+        return new ConsultationDto(null, consultationDate, "Consultation", price, dueAmount, null);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.AstroTrack.service;
+
+import com.example.AstroTrack.service.Impl.JwtServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that tokens are signed and verified with the prebuilt key and that validation honours the blacklist.
+ */
+@ExtendWith(MockitoExtension.class)
+class JwtServiceImplTest {
+
+    @Mock
+    TokenService tokenService;
+
+    @InjectMocks
+    JwtServiceImpl jwtService;
+
+    private final UserDetails user = new User("akash", "password", List.of());
+
+    @Test
+    void parsesGeneratedTokens() {
+        String token = jwtService.generateToken("akash");
+
+        Claims claims = jwtService.parseToken(token);
+
+        assertEquals("akash", claims.getSubject());
+        assertTrue(claims.getExpiration().after(claims.getIssuedAt()));
+        assertEquals("akash", jwtService.extractUsername(token));
+    }
+
+    @Test
+    void validatesParsedTokens() {
+        String token = jwtService.generateToken("akash");
+        when(tokenService.isTokenBlacklisted(token)).thenReturn(false);
+
+        assertTrue(jwtService.validateToken(jwtService.parseToken(token), token, user));
+        assertFalse(jwtService.validateToken(jwtService.parseToken(token), token, new User("sita", "password", List.of())));
+    }
+
+    @Test
+    void rejectsBlacklistedTokens() {
+        String token = jwtService.generateToken("akash");
+        when(tokenService.isTokenBlacklisted(token)).thenReturn(true);
+
+        assertFalse(jwtService.validateToken(token, user));
+    }
+
+    @Test
+    void embedsAuthoritiesAsRoles() {
+        UserDetails admin = new User("akash", "password", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        String token = jwtService.generateToken(admin);
+        when(tokenService.isTokenBlacklisted(token)).thenReturn(false);
+
+        Claims claims = jwtService.parseToken(token);
+
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), List.copyOf(jwtService.extractAuthorities(claims)));
+        assertTrue(jwtService.validateToken(claims, token));
+        assertTrue(jwtService.extractAuthorities(jwtService.parseToken(jwtService.generateToken("akash"))).isEmpty());
+    }
+
+    @Test
+    void rejectsTamperedTokens() {
+        String token = jwtService.generateToken("akash");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(SignatureException.class, () -> jwtService.parseToken(tampered));
+    }
+}
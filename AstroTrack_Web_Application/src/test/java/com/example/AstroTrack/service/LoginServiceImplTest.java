@@ -0,0 +1,67 @@
+package com.example.AstroTrack.service;
+
+import com.example.AstroTrack.exception.TooManyLoginAttemptsException;
+import com.example.AstroTrack.service.Impl.LoginServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that logins are verified off the request thread and rejected once the login queue is full.
+ */
+class LoginServiceImplTest {
+
+    private final AuthenticationManager authenticationManager = mock(AuthenticationManager.class);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private LoginServiceImpl loginService;
+
+    @BeforeEach
+    void setUp() {
+        when(authenticationManager.authenticate(any())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            Authentication request = invocation.getArgument(0);
+            return UsernamePasswordAuthenticationToken.authenticated(request.getName(), null, List.of());
+        });
+        loginService = new LoginServiceImpl();
+        ReflectionTestUtils.setField(loginService, "authenticationManager", authenticationManager);
+        ReflectionTestUtils.setField(loginService, "threads", 1);
+        ReflectionTestUtils.setField(loginService, "queueCapacity", 1);
+        loginService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        loginService.shutdown();
+    }
+
+    @Test
+    void rejectsLoginsBeyondTheQueue() {
+        CompletableFuture<Authentication> running = loginService.authenticate("akash", "password");
+        CompletableFuture<Authentication> queued = loginService.authenticate("sita", "password");
+
+        assertThrows(TooManyLoginAttemptsException.class, () -> loginService.authenticate("ravi", "password"));
+
+        release.countDown();
+        assertEquals("akash", running.join().getName());
+        assertTrue(queued.join().isAuthenticated());
+    }
+}
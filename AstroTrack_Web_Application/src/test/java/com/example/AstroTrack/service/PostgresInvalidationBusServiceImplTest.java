@@ -0,0 +1,100 @@
+package com.example.AstroTrack.service;
+
+import com.example.AstroTrack.dto.InvalidationEventDto;
+import com.example.AstroTrack.service.Impl.PostgresInvalidationBusServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that invalidations published by one instance reach every instance listening on the database.
+ * Runs against PostgreSQL in a container and is skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresInvalidationBusServiceImplTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private PostgresInvalidationBusServiceImpl node;
+
+    private PostgresInvalidationBusServiceImpl otherNode;
+
+    @BeforeEach
+    void setUp() {
+        node = instance();
+        otherNode = instance();
+    }
+
+    @AfterEach
+    void tearDown() {
+        node.stop();
+        otherNode.stop();
+    }
+
+    @Test
+    void deliversEventsToEveryInstance() throws InterruptedException {
+        BlockingQueue<InvalidationEventDto> received = new LinkedBlockingQueue<>();
+        BlockingQueue<InvalidationEventDto> receivedByOther = new LinkedBlockingQueue<>();
+        node.subscribe(received::add);
+        otherNode.subscribe(receivedByOther::add);
+        InvalidationEventDto revocation = InvalidationEventDto.tokenRevoked("digest", 1_000L);
+        InvalidationEventDto eviction = InvalidationEventDto.cacheEvicted("users", List.of("akash"));
+
+        // The listeners subscribe asynchronously, so publish until the first event arrives
+        InvalidationEventDto first = null;
+        while (first == null) {
+            node.publish(revocation);
+            first = receivedByOther.poll(100, TimeUnit.MILLISECONDS);
+        }
+        node.publish(eviction);
+
+        assertEquals(revocation, first);
+        assertTrue(awaitEvent(receivedByOther, eviction));
+        assertTrue(awaitEvent(received, eviction));
+    }
+
+    /**
+     * Waits for an event, skipping the events published before it.
+     *
+     * @param received the received events
+     * @param expected the event to wait for
+     * @return true if the event arrived within five seconds, false otherwise
+     */
+    private static boolean awaitEvent(BlockingQueue<InvalidationEventDto> received, InvalidationEventDto expected)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            if (expected.equals(received.poll(100, TimeUnit.MILLISECONDS))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static PostgresInvalidationBusServiceImpl instance() {
+        PGSimpleDataSource dataSource = new PGSimpleDataSource();
+        dataSource.setUrl(postgres.getJdbcUrl());
+        dataSource.setUser(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        PostgresInvalidationBusServiceImpl instance = new PostgresInvalidationBusServiceImpl();
+        ReflectionTestUtils.setField(instance, "dataSource", dataSource);
+        ReflectionTestUtils.setField(instance, "objectMapper", new ObjectMapper());
+        instance.start();
+        return instance;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.AstroTrack.service;
+
+import com.example.AstroTrack.config.UserDetailsImpl;
+import com.example.AstroTrack.dto.InvalidationEventDto;
+import com.example.AstroTrack.dto.IssuedRefreshTokenDto;
+import com.example.AstroTrack.entity.RefreshToken;
+import com.example.AstroTrack.entity.Users;
+import com.example.AstroTrack.repository.RefreshTokenRepository;
+import com.example.AstroTrack.repository.UserRepository;
+import com.example.AstroTrack.service.Impl.RefreshTokenServiceImpl;
+import com.example.AstroTrack.utils.DigestUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that refresh tokens are stored as digests, rotated on every use from the near-cache, and swept in batches.
+ */
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceImplTest {
+
+    @Mock
+    RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    InvalidationBusService invalidationBusService;
+
+    @InjectMocks
+    RefreshTokenServiceImpl refreshTokenService;
+
+    private Users user;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(refreshTokenService, "maximumSize", 100L);
+        ReflectionTestUtils.setField(refreshTokenService, "sweepBatchSize", 500);
+        refreshTokenService.init();
+        user = new Users();
+        user.setId(1L);
+        user.setUsername("akash");
+    }
+
+    @Test
+    void storesOnlyTheDigest() {
+        IssuedRefreshTokenDto issued = create();
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertEquals(DigestUtil.tokenDigest(issued.token()), saved.getValue().getTokenHash());
+        assertNotEquals(issued.token(), saved.getValue().getTokenHash());
+        assertEquals("akash", issued.username());
+    }
+
+    @Test
+    void rotatesActiveTokensWithoutReadingThem() {
+        IssuedRefreshTokenDto issued = create();
+        when(refreshTokenRepository.deleteTokenById(7)).thenReturn(1);
+
+        IssuedRefreshTokenDto rotated = refreshTokenService.rotateRefreshToken(issued.token());
+
+        assertNotEquals(issued.token(), rotated.token());
+        assertEquals(issued.expiryDate(), rotated.expiryDate());
+        assertEquals("akash", rotated.username());
+        verify(refreshTokenRepository, never()).findByTokenHash(any());
+    }
+
+    @Test
+    void acceptsEveryTokenOnlyOnce() {
+        IssuedRefreshTokenDto issued = create();
+        when(refreshTokenRepository.deleteTokenById(7)).thenReturn(0);
+
+        assertThrows(RuntimeException.class, () -> refreshTokenService.rotateRefreshToken(issued.token()));
+    }
+
+    @Test
+    void broadcastsTheUsedTokenOnlyAfterCommit() {
+        IssuedRefreshTokenDto issued = create();
+        when(refreshTokenRepository.deleteTokenById(7)).thenReturn(1, 0);
+        InvalidationEventDto eviction = InvalidationEventDto.cacheEvicted(RefreshTokenServiceImpl.REFRESH_TOKENS_CACHE,
+                List.of(DigestUtil.tokenDigest(issued.token())));
+        IssuedRefreshTokenDto rotated;
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            rotated = refreshTokenService.rotateRefreshToken(issued.token());
+
+            verify(invalidationBusService, never()).publish(any());
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            verify(invalidationBusService).publish(eviction);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThrows(RuntimeException.class, () -> refreshTokenService.rotateRefreshToken(rotated.token()));
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+            verify(invalidationBusService, times(1)).publish(any());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void readsTokensMissingFromTheNearCache() {
+        when(refreshTokenRepository.findByTokenHash(DigestUtil.tokenDigest("stored")))
+                .thenReturn(Optional.of(stored(9, new Date(System.currentTimeMillis() + 60_000))));
+        when(refreshTokenRepository.deleteTokenById(9)).thenReturn(1);
+        when(refreshTokenRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+
+        assertEquals("akash", refreshTokenService.rotateRefreshToken("stored").username());
+        assertThrows(RuntimeException.class, () -> refreshTokenService.rotateRefreshToken("unknown"));
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        when(refreshTokenRepository.findByTokenHash(DigestUtil.tokenDigest("expired")))
+                .thenReturn(Optional.of(stored(9, new Date(System.currentTimeMillis() - 1_000))));
+
+        assertThrows(RuntimeException.class, () -> refreshTokenService.rotateRefreshToken("expired"));
+        verify(refreshTokenRepository, never()).deleteTokenById(anyInt());
+    }
+
+    @Test
+    void sweepsExpiredTokensInBatches() {
+        when(refreshTokenRepository.deleteExpiredBatch(any(), any(Integer.class))).thenReturn(500, 500, 3);
+
+        assertEquals(1003, refreshTokenService.purgeExpiredTokens());
+        verify(refreshTokenRepository, times(3)).deleteExpiredBatch(any(), any(Integer.class));
+    }
+
+    private IssuedRefreshTokenDto create() {
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(refreshTokenRepository.save(any())).thenAnswer(invocation -> {
+            RefreshToken refreshToken = invocation.getArgument(0);
+            refreshToken.setId(7);
+            return refreshToken;
+        });
+        return refreshTokenService.createRefreshToken(UserDetailsImpl.build(user));
+    }
+
+    private RefreshToken stored(int id, Date expiryDate) {
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setId(id);
+        refreshToken.setTokenHash("unused");
+        refreshToken.setExpiryDate(expiryDate);
+        refreshToken.setUserInfo(user);
+        return refreshToken;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.AstroTrack.service;
+
+import com.example.AstroTrack.dto.ImageSize;
+import com.example.AstroTrack.service.Impl.FileSystemImageStorageServiceImpl;
+import com.example.AstroTrack.service.Impl.ThumbnailServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Verifies that thumbnails are generated within the bounds of their rendition, that undecodable images are served in
+ * their original form and decoded only once, and that media types come from the recorded type where there is one.
+ */
+class ThumbnailServiceImplTest {
+
+    @TempDir
+    Path location;
+
+    private ImageStorageService imageStorageService;
+
+    private ThumbnailServiceImpl thumbnailService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        FileSystemImageStorageServiceImpl fileSystemStorage = new FileSystemImageStorageServiceImpl();
+        ReflectionTestUtils.setField(fileSystemStorage, "location", location.toString());
+        fileSystemStorage.init();
+        imageStorageService = spy(fileSystemStorage);
+        thumbnailService = new ThumbnailServiceImpl();
+        ReflectionTestUtils.setField(thumbnailService, "imageStorageService", imageStorageService);
+    }
+
+    @Test
+    void generatesEveryRenditionWithinItsBounds() throws Exception {
+        String imageKey = imageStorageService.store(new ByteArrayInputStream(png(800, 400)));
+
+        thumbnailService.generateThumbnails(imageKey);
+
+        for (ImageSize size : new ImageSize[]{ImageSize.SMALL, ImageSize.MEDIUM, ImageSize.LARGE}) {
+            String renditionKey = thumbnailService.resolve(imageKey, size);
+            assertEquals(imageStorageService.variantKey(imageKey, size.variantName()), renditionKey);
+            BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(imageStorageService.read(renditionKey)));
+            assertEquals(size.getMaxDimension(), thumbnail.getWidth());
+            assertEquals(size.getMaxDimension() / 2, thumbnail.getHeight());
+        }
+        assertEquals(imageKey, thumbnailService.resolve(imageKey, ImageSize.ORIGINAL));
+    }
+
+    @Test
+    void generatesMissingThumbnailsOnDemand() throws Exception {
+        String imageKey = imageStorageService.store(new ByteArrayInputStream(png(100, 100)));
+        String variantKey = imageStorageService.variantKey(imageKey, ImageSize.SMALL.variantName());
+        assertFalse(imageStorageService.exists(variantKey));
+
+        assertEquals(variantKey, thumbnailService.resolve(imageKey, ImageSize.SMALL));
+        assertTrue(imageStorageService.exists(variantKey));
+    }
+
+    @Test
+    void decodesUndecodableImagesOnlyOnce() throws Exception {
+        String imageKey = imageStorageService.store(new ByteArrayInputStream("not an image".getBytes()));
+
+        thumbnailService.generateThumbnails(imageKey);
+        for (ImageSize size : ImageSize.values()) {
+            assertEquals(imageKey, thumbnailService.resolve(imageKey, size));
+        }
+
+        verify(imageStorageService, times(1)).open(imageKey);
+    }
+
+    @Test
+    void usesTheRecordedMediaTypeOfOriginals() throws Exception {
+        String imageKey = imageStorageService.store(new ByteArrayInputStream(png(10, 10)));
+
+        assertEquals("image/png", thumbnailService.detectContentType(imageKey));
+        assertEquals("image/webp", thumbnailService.contentType(imageKey, imageKey, "image/webp"));
+        assertEquals("image/png", thumbnailService.contentType(imageKey, imageKey, null));
+        assertEquals("image/jpeg", thumbnailService.contentType(imageKey, thumbnailService.resolve(imageKey, ImageSize.SMALL), "image/png"));
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.AstroTrack.service;
+
+import com.example.AstroTrack.service.Impl.LocalInvalidationBusServiceImpl;
+import com.example.AstroTrack.service.Impl.TokenCacheServiceImpl;
+import com.example.AstroTrack.service.Impl.TokenServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Verifies that verified tokens are remembered until they expire or are blacklisted.
+ */
+class TokenCacheServiceImplTest {
+
+    private final UserDetails user = new User("akash", "password", List.of());
+
+    private TokenCacheServiceImpl tokenCacheService;
+
+    @BeforeEach
+    void setUp() {
+        tokenCacheService = new TokenCacheServiceImpl();
+        ReflectionTestUtils.setField(tokenCacheService, "maximumSize", 100L);
+        tokenCacheService.init();
+    }
+
+    @Test
+    void remembersTokensUntilEvicted() {
+        tokenCacheService.put("first", user, inMillis(60_000));
+
+        assertSame(user, tokenCacheService.get("first"));
+        assertNull(tokenCacheService.get("second"));
+
+        tokenCacheService.evict("first");
+
+        assertNull(tokenCacheService.get("first"));
+    }
+
+    @Test
+    void expiresEntriesWithTheirToken() throws InterruptedException {
+        tokenCacheService.put("expired", user, inMillis(-1_000));
+        tokenCacheService.put("expiring", user, inMillis(100));
+
+        assertNull(tokenCacheService.get("expired"));
+        assertSame(user, tokenCacheService.get("expiring"));
+
+        Thread.sleep(200);
+
+        assertNull(tokenCacheService.get("expiring"));
+    }
+
+    @Test
+    void blacklistingEvictsTheToken() {
+        TokenServiceImpl tokenService = new TokenServiceImpl();
+        ReflectionTestUtils.setField(tokenService, "tokenCacheService", tokenCacheService);
+        ReflectionTestUtils.setField(tokenService, "invalidationBusService", new LocalInvalidationBusServiceImpl());
+        tokenCacheService.put("token", user, inMillis(60_000));
+
+        tokenService.blacklistToken("token");
+
+        assertNull(tokenCacheService.get("token"));
+    }
+
+    private static Date inMillis(long millis) {
+        return new Date(System.currentTimeMillis() + millis);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.AstroTrack.service;
+
+import com.example.AstroTrack.service.Impl.LocalInvalidationBusServiceImpl;
+import com.example.AstroTrack.service.Impl.TokenCacheServiceImpl;
+import com.example.AstroTrack.service.Impl.TokenServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Verifies that blacklisted tokens are rejected until they expire, on every instance, and that the blacklist is safe
+ * for concurrent use.
+ */
+class TokenServiceImplTest {
+
+    private static final int THREADS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    private TokenServiceImpl tokenService;
+
+    @BeforeEach
+    void setUp() {
+        tokenService = instance(new LocalInvalidationBusServiceImpl(), mock(TokenCacheService.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void rejectsBlacklistedTokensOnly() {
+        tokenService.blacklistToken("revoked", inMillis(60_000));
+        tokenService.blacklistToken("fallback");
+
+        assertTrue(tokenService.isTokenBlacklisted("revoked"));
+        assertTrue(tokenService.isTokenBlacklisted("fallback"));
+        assertFalse(tokenService.isTokenBlacklisted("valid"));
+    }
+
+    @Test
+    void dropsTokensOnceTheyExpire() throws InterruptedException {
+        tokenService.blacklistToken("expired", inMillis(-1_000));
+        tokenService.blacklistToken("expiring", inMillis(100));
+        tokenService.blacklistToken("revoked", inMillis(60_000));
+
+        assertFalse(tokenService.isTokenBlacklisted("expired"));
+        assertTrue(tokenService.isTokenBlacklisted("expiring"));
+
+        Thread.sleep(200);
+
+        assertEquals(1, tokenService.purgeExpiredTokens());
+        assertFalse(tokenService.isTokenBlacklisted("expiring"));
+        assertTrue(tokenService.isTokenBlacklisted("revoked"));
+    }
+
+    @Test
+    void keepsEveryTokenWhileBlacklistingAndPurgingConcurrently() throws Exception {
+        int tokensPerThread = 500;
+        AtomicBoolean running = new AtomicBoolean(true);
+        Future<?> purger = executor.submit(() -> {
+            while (running.get()) {
+                tokenService.purgeExpiredTokens();
+            }
+        });
+
+        List<Future<Boolean>> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS - 1; t++) {
+            int thread = t;
+            writers.add(executor.submit(() -> {
+                boolean allFound = true;
+                for (int i = 0; i < tokensPerThread; i++) {
+                    String token = "token-" + thread + "-" + i;
+                    tokenService.blacklistToken(token, inMillis(60_000));
+                    allFound &= tokenService.isTokenBlacklisted(token);
+                }
+                return allFound;
+            }));
+        }
+        for (Future<Boolean> writer : writers) {
+            assertTrue(writer.get(30, TimeUnit.SECONDS));
+        }
+        running.set(false);
+        purger.get(5, TimeUnit.SECONDS);
+
+        for (int t = 0; t < THREADS - 1; t++) {
+            for (int i = 0; i < tokensPerThread; i++) {
+                assertTrue(tokenService.isTokenBlacklisted("token-" + t + "-" + i));
+            }
+        }
+    }
+
+    @Test
+    void revocationsReachEveryInstance() {
+        LocalInvalidationBusServiceImpl bus = new LocalInvalidationBusServiceImpl();
+        TokenCacheServiceImpl otherTokenCache = new TokenCacheServiceImpl();
+        ReflectionTestUtils.setField(otherTokenCache, "maximumSize", 100L);
+        otherTokenCache.init();
+        TokenServiceImpl node = instance(bus, mock(TokenCacheService.class));
+        TokenServiceImpl otherNode = instance(bus, otherTokenCache);
+        otherTokenCache.put("token", new User("akash", "password", List.of()), inMillis(60_000));
+        assertNotNull(otherTokenCache.get("token"));
+
+        node.blacklistToken("token", inMillis(60_000));
+
+        assertTrue(otherNode.isTokenBlacklisted("token"));
+        assertNull(otherTokenCache.get("token"));
+        assertFalse(otherNode.isTokenBlacklisted("valid"));
+    }
+
+    private static TokenServiceImpl instance(LocalInvalidationBusServiceImpl bus, TokenCacheService tokenCacheService) {
+        TokenServiceImpl instance = new TokenServiceImpl();
+        ReflectionTestUtils.setField(instance, "tokenCacheService", tokenCacheService);
+        ReflectionTestUtils.setField(instance, "invalidationBusService", bus);
+        instance.init();
+        return instance;
+    }
+
+    private static Date inMillis(long millis) {
+        return new Date(System.currentTimeMillis() + millis);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.AstroTrack.service;
+
+import com.example.AstroTrack.config.CacheConfig;
+import com.example.AstroTrack.config.UserCacheEvictionListener;
+import com.example.AstroTrack.entity.Users;
+import com.example.AstroTrack.repository.UserRepository;
+import com.example.AstroTrack.service.Impl.LocalInvalidationBusServiceImpl;
+import com.example.AstroTrack.service.Impl.UserDetailServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that user details are cached per username and evicted when a user is written.
+ */
+@SpringBootTest(classes = {UserDetailServiceImpl.class, CacheConfig.class, LocalInvalidationBusServiceImpl.class}, properties = {
+        "spring.cache.type=caffeine",
+        "spring.cache.cache-names=financialMonthly,financialTotals"})
+@ImportAutoConfiguration({AopAutoConfiguration.class, CacheAutoConfiguration.class})
+class UserDetailServiceCacheTest {
+
+    @Autowired
+    UserDetailServiceImpl userDetailService;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    AutowireCapableBeanFactory beanFactory;
+
+    @MockitoBean
+    UserRepository userRepository;
+
+    private Users user;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.USERS_CACHE).clear();
+        user = new Users();
+        user.setId(1L);
+        user.setUsername("akash");
+        user.setPassword("hash");
+        when(userRepository.findUserByUsername("akash")).thenReturn(user);
+    }
+
+    @Test
+    void readsEachUserOnce() {
+        userDetailService.loadUserByUsername("akash");
+        assertEquals("akash", userDetailService.loadUserByUsername("akash").getUsername());
+
+        verify(userRepository, times(1)).findUserByUsername("akash");
+    }
+
+    @Test
+    void readsUsersAgainAfterAWrite() {
+        userDetailService.loadUserByUsername("akash");
+        user.setPassword("new hash");
+
+        beanFactory.createBean(UserCacheEvictionListener.class).evict(user);
+
+        assertEquals("new hash", userDetailService.loadUserByUsername("akash").getPassword());
+        verify(userRepository, times(2)).findUserByUsername("akash");
+    }
+
+    @Test
+    void doesNotCacheUnknownUsers() {
+        assertThrows(UsernameNotFoundException.class, () -> userDetailService.loadUserByUsername("sita"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailService.loadUserByUsername("sita"));
+
+        verify(userRepository, times(2)).findUserByUsername("sita");
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.AstroTrack.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that cursors round-trip their sort key values, including nulls, and that malformed cursors are rejected.
+ */
+class CursorUtilTest {
+
+    @Test
+    void roundTripsSortKeyValues() {
+        assertArrayEquals(new String[]{"42"}, CursorUtil.decode(CursorUtil.encode(42L), 1));
+        assertArrayEquals(new String[]{"Akash Jagtap", "7"}, CursorUtil.decode(CursorUtil.encode("Akash Jagtap", 7L), 2));
+        assertArrayEquals(new String[]{"Ånanya ✓", "8"}, CursorUtil.decode(CursorUtil.encode("Ånanya ✓", 8L), 2));
+        assertArrayEquals(new String[]{"", "0"}, CursorUtil.decode(CursorUtil.encode("", 0L), 2));
+        assertArrayEquals(new String[]{"3", "a", "9"}, CursorUtil.decode(CursorUtil.encode(3, "a", 9L), 3));
+    }
+
+    @Test
+    void keepsNullsApartFromStrings() {
+        assertArrayEquals(new String[]{null, "7"}, CursorUtil.decode(CursorUtil.encode(null, 7L), 2));
+        assertArrayEquals(new String[]{"null", "7"}, CursorUtil.decode(CursorUtil.encode("null", 7L), 2));
+    }
+
+    @Test
+    void producesUrlSafeCursors() {
+        String cursor = CursorUtil.encode("???>>>", 1L);
+
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"), cursor);
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(IllegalArgumentException.class, () -> CursorUtil.decode("not base64!", 1));
+        assertThrows(IllegalArgumentException.class, () -> CursorUtil.decode(CursorUtil.encode("Akash", 7L), 1));
+        assertThrows(IllegalArgumentException.class, () -> CursorUtil.decode(CursorUtil.encode(7L), 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> CursorUtil.decode(Base64.getUrlEncoder().encodeToString("a\u001Fb\u001Fc".getBytes()), 2));
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.AstroTrack.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that concurrent identical calls share one computation and that results are not kept afterwards.
+ */
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneComputation() throws Exception {
+        SingleFlight<String, List<Integer>> singleFlight = new SingleFlight<>("test");
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<List<Integer>>> results = new ArrayList<>();
+        results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+            computations.incrementAndGet();
+            started.countDown();
+            await(release);
+            return List.of(1, 2, 3);
+        })));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                computations.incrementAndGet();
+                return List.of();
+            })));
+        }
+        while (singleFlight.getSavedCount() < CALLERS - 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        List<Integer> first = results.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<List<Integer>> result : results) {
+            assertSame(first, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, computations.get());
+        assertEquals(CALLERS - 1, singleFlight.getSavedCount());
+    }
+
+    @Test
+    void concurrentCallersShareTheException() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("failed");
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            started.countDown();
+            await(release);
+            throw failure;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<IllegalStateException> follower = executor.submit(() ->
+                assertThrows(IllegalStateException.class, () -> singleFlight.execute("key", () -> "unused")));
+        while (singleFlight.getSavedCount() < 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertSame(failure, follower.get(5, TimeUnit.SECONDS));
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertSame(failure, leaderFailure.getCause());
+    }
+
+    @Test
+    void sequentialCallersComputeAgain() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test");
+        AtomicInteger computations = new AtomicInteger();
+
+        singleFlight.execute("key", computations::incrementAndGet);
+        int second = singleFlight.execute("key", computations::incrementAndGet);
+
+        assertEquals(2, second);
+        assertEquals(0, singleFlight.getSavedCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}